@@ -73,6 +73,21 @@ public class AStarNode {
 		this.setH(current.x, current.y, destinations);
 	}
 
+	/**
+	 * Constructor using precomputed distances to the destinations, useful when
+	 * there are many of them
+	 * 
+	 * @param parent
+	 * @param previousCost
+	 * @param current
+	 * @param distances
+	 */
+	public AStarNode(Point parent, int previousCost, Point current, MazeDistanceTransform distances) {
+		this.parent = parent;
+		this.setG(previousCost);
+		this.setH(current.x, current.y, distances);
+	}
+
 	/**
 	 * Get G and F combined Want return Integer so on lamba expressions just can
 	 * call getF().compare directly
@@ -150,6 +165,17 @@ public class AStarNode {
 		this.heurestic = smallest;
 	}
 
+	/**
+	 * Looks up manhatan distance to the closest destination and sets it as H
+	 * 
+	 * @param currentX
+	 * @param currentY
+	 * @param distances
+	 */
+	public void setH(int currentX, int currentY, MazeDistanceTransform distances) {
+		this.heurestic = (short) Math.min(distances.getDistance(currentX, currentY), Short.MAX_VALUE);
+	}
+
 	/**
 	 * @param h
 	 *          the heurestics set to specific value
@@ -144,6 +144,9 @@ public class Gui implements ActionListener {
 	private static final int														BLOCK_HEIGHT					= 16;
 	private static final int														BLOCK_SPACING_WIDTH		= BLOCK_WIDTH + 1;
 	private static final int														BLOCK_SPACING_HEIGHT	= BLOCK_HEIGHT + 1;
+	// Maze itself can be much bigger, but it wouldn't be possible to draw it
+	private static final int														MAX_DRAWABLE_WIDTH		= 600;
+	private static final int														MAX_DRAWABLE_HEIGHT		= 600;
 	private Map<String, Pair<AbstractButton, Runnable>>	actions;
 	private Timer																				animationTimer;
 	private JFrame																			frame;
@@ -248,26 +251,7 @@ public class Gui implements ActionListener {
 		}
 
 		try {
-			switch (implementationToUse) {
-				case BFS_QUEUE_JDK:
-					solver = new MazeSolverBfs(maze, Aproach.BFS_QUEUE_JDK);
-					break;
-
-				case DFS_STACK_JDK:
-					solver = new MazeSolverDfs(maze, Aproach.DFS_STACK_JDK);
-					break;
-
-				case ASTAR_HASHMAP:
-					solver = new MazeSolverAStar(maze, Aproach.ASTAR_HASHMAP);
-					break;
-
-				case ASTAR_CONCURENT_HASHMAP:
-					solver = new MazeSolverAStar(maze, Aproach.ASTAR_CONCURENT_HASHMAP);
-					break;
-
-				default:
-					throw new Exception("Not implemented aproach for solver selected");
-			}
+			solver = MazeSolverFactory.getSolver(maze, implementationToUse);
 			draw.setSolver(solver);
 			draw.maze();
 			draw.setStatusBar("Maze loaded and solver implementation now used: " + solver.getAproach());
@@ -390,6 +374,12 @@ public class Gui implements ActionListener {
 			try {
 
 				maze.load(fileName);
+
+				if (maze.getWidth() > MAX_DRAWABLE_WIDTH || maze.getHeight() > MAX_DRAWABLE_HEIGHT)
+					throw new Exception(String.format(
+							"Maze %dx%d is too big to be displayed, maximum is %dx%d", maze.getWidth(),
+							maze.getHeight(), MAX_DRAWABLE_WIDTH, MAX_DRAWABLE_HEIGHT));
+
 				actionFlushSolver();
 
 			} catch (Exception loadException) {
@@ -415,7 +405,12 @@ public class Gui implements ActionListener {
 
 		if (fileName != null) {
 			try {
-				maze.save(fileName + ".maze");
+				// binary format only when asked for it explicitly
+				if (fileName.endsWith(Maze.BINARY_EXTENSION)) {
+					maze.save(fileName);
+				} else {
+					maze.save(fileName + ".maze");
+				}
 			} catch (Exception e) {
 				draw.setStatusBarException(e);
 			}
@@ -746,6 +741,8 @@ public class Gui implements ActionListener {
 					return true;
 				else if (f.getName().endsWith(".maze"))
 					return true;
+				else if (f.getName().endsWith(Maze.BINARY_EXTENSION))
+					return true;
 				else return false;
 			}
 
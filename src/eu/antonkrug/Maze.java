@@ -1,16 +1,27 @@
 package eu.antonkrug;
 
 import java.awt.Point;
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+import utils.WeightedCache;
 
 /**
  * Maze loader and generator class, handles file IO as well.
@@ -27,7 +38,7 @@ import java.util.Scanner;
  * Proprietary and confidential
  * Written by Anton Krug <anton.krug@gmail.com>, February 2015
  */
-public class Maze {
+public class Maze implements AutoCloseable {
 
 	/**
 	 * All possible types of blocks a maze can contain
@@ -73,33 +84,192 @@ public class Maze {
 			return Block.NULL;
 		}
 
+		/**
+		 * Decode block from the byte stored inside the packed grid
+		 * 
+		 * @param code
+		 * @return block or null when the cell was never set
+		 */
+		public static Block getEnum(byte code) {
+			return CODE_TO_BLOCK[code];
+		}
+
 		public char getChar() {
 			return ' ';
 		}
 
+		/**
+		 * Code of this block how it's stored in the packed grid, 0 is reserved for
+		 * cells which were never set (they used to be null in the Block[][] array)
+		 * 
+		 * @return
+		 */
+		public byte getCode() {
+			return (byte) (ordinal() + 1);
+		}
+
+		/**
+		 * Check if this block is not abscured by wall
+		 * 
+		 * @return
+		 */
+		public boolean isWalkable() {
+			return this == EMPTY || this == START || this == FINISH;
+		}
+
 	}
 
-	// 1000 + 1 border + 1 border = 1002 for 1000x1000 if i want
-	private final static short	MAX_MAZE_HEIGHT	= 600;
-	private final static short	MAX_MAZE_WIDTH	= 600;
+	// mazes bigger than the heap are held in tiled memory mapped file, so the
+	// cap is only sanity check against broken files
+	private final static int		MAX_MAZE_HEIGHT		= 1 << 17;
+	private final static int		MAX_MAZE_WIDTH		= 1 << 17;
+
+	// cells are addressed by int index (y * width + x), so this is the real cap
+	// on the size even for the tiled backend
+	private final static long		MAX_MAZE_CELLS		= Integer.MAX_VALUE;
+
+	// up to 8192x8192 cells (64MB) are kept inside heap, anything bigger will
+	// use tiled backend
+	private final static long		MAX_HEAP_CELLS		= 1 << 26;
+
+	// binary maze files are recognised by this extension
+	public final static String	BINARY_EXTENSION	= ".mazeb";
+
+	// "MAZB" and version of the binary format
+	private final static int		BINARY_MAGIC			= 0x4D415A42;
+	private final static short	BINARY_VERSION		= 1;
+
+	// files are mapped by 1GB windows
+	private final static long		LOAD_WINDOW_BYTES	= 1 << 30;
+
+	// text files bigger than 4MB are parsed by multiple threads
+	private final static int		PARALLEL_LOAD_BYTES	= 1 << 22;
+
+	// how much memory the cached flow fields (for different destinations) can
+	// take, each field is 5 bytes per cell
+	private final static long		FLOW_FIELDS_BYTES	= 1 << 28;
+
+	// how much memory the cached distance transforms can take
+	private final static long		DISTANCE_TRANSFORMS_BYTES	= 1 << 28;
+
+	// code 0 is cell which was never set, then all blocks follow by ordinal
+	private final static byte		CELL_UNSET			= 0;
+	private final static Block[]	CODE_TO_BLOCK;
+	private final static boolean[]	CODE_WALKABLE;
+
+	// character from the file to code of the cell, anything unknown is NULL
+	private final static byte[]	BYTE_TO_CODE;
+
+	// how many last cell changes are remembered (power of 2)
+	public final static int			JOURNAL_SIZE			= 1 << 12;
+
+	static {
+		Block[] blocks = Block.values();
+		CODE_TO_BLOCK = new Block[blocks.length + 1];
+		CODE_WALKABLE = new boolean[blocks.length + 1];
+
+		CODE_TO_BLOCK[CELL_UNSET] = null;
+		CODE_WALKABLE[CELL_UNSET] = false;
+
+		BYTE_TO_CODE = new byte[256];
+		for (int character = 0; character < BYTE_TO_CODE.length; character++) {
+			BYTE_TO_CODE[character] = Block.getEnum((char) character).getCode();
+		}
+
+		for (Block block : blocks) {
+			CODE_TO_BLOCK[block.getCode()] = block;
+			CODE_WALKABLE[block.getCode()] = block.isWalkable();
+		}
+	}
 
 	private List<Point>					allDirections;
 
-	private short								height;
-	private Block[][]						maze;
+	// component label of each cell (-1 for walls), valid for componentsVersion
+	private int[]								components;
+	private boolean							componentLabelling;
+	private long								componentsVersion;
+
+	// copy of this maze with dead ends filled, valid for deadEndsFilledVersion
+	private Maze								deadEndsFilled;
+	private long								deadEndsFilledVersion;
+
+	// distance transforms for each set of targets, valid for
+	// distanceTransformsVersion
+	private WeightedCache<BitSet, MazeDistanceTransform>	distanceTransforms;
+	private long								distanceTransformsVersion;
+
+	// abstract graph for hierarchical search, it's refreshed by itself
+	private MazeClusterGraph		clusterGraph;
+
+	// content hash, valid for fingerprintVersion
+	private long								fingerprint;
+	private long								fingerprintVersion;
+
+	// flow fields for each set of destinations, valid for flowFieldsVersion
+	private WeightedCache<BitSet, MazeFlowField>	flowFields;
+	private long								flowFieldsVersion;
+
+	// landmarks for ALT heurestic, valid for landmarksVersion
+	private MazeLandmarks				landmarks;
+	private long								landmarksVersion;
+
+	// junction graph of this maze, valid for junctionGraphVersion
+	private MazeGraph						junctionGraph;
+	private long								junctionGraphVersion;
+
+	private int									height;
+
+	// ring buffer of changed cell indexes, change which made version V is stored
+	// at (V - 1) & (JOURNAL_SIZE - 1)
+	private int[]								journal;
+	// oldest version the journal can answer for, anything older needs full rescan
+	private long								journalFloor;
+
+	// one byte per cell, either in the heap or in tiled memory mapped file
+	private MazeStorage					maze;
 	private ArrayList<Point>		wallList;
 	private String              fileName;
 
-	private short								width;
+	// increased by each change of the maze
+	private long								version;
+
+	private int									width;
 
 	/**
 	 * Constructor with some very small maze just to have something
 	 */
 	public Maze() {
-		maze = new Block[1][1];
+		maze = new MazeStorageArray(1, 1);
 		fileName="";
+		journal = new int[JOURNAL_SIZE];
+		version = 0;
+		journalFloor = 0;
+		componentLabelling = false;
+		components = null;
+		deadEndsFilled = null;
+		junctionGraph = null;
+		clusterGraph = null;
+		landmarks = null;
+		flowFields = null;
+		distanceTransforms = null;
+		fingerprintVersion = -1;
 	}
 	
+	/**
+	 * Release the storage of the maze (temporary file of huge mazes) and of its
+	 * cached copy, the maze is left empty and has to be initialized or loaded
+	 * again before it's used
+	 */
+	@Override
+	public void close() {
+		maze.close();
+		maze = new MazeStorageArray(1, 1);
+
+		if (deadEndsFilled != null) deadEndsFilled.close();
+		deadEndsFilled = null;
+		journalAllChanged();
+	}
+
 	/**
 	 * Gets name of the loaded file
 	 * @return
@@ -114,7 +284,7 @@ public class Maze {
 	 * @param point
 	 */
 	public void addFinish(Point point) {
-		maze[point.x][point.y] = Block.FINISH;
+		setCell(point.x, point.y, Block.FINISH);
 	}
 
 	/**
@@ -123,7 +293,7 @@ public class Maze {
 	 * @param point
 	 */
 	public void addStart(Point point) {
-		maze[point.x][point.y] = Block.START;
+		setCell(point.x, point.y, Block.START);
 	}
 
 	/**
@@ -132,7 +302,16 @@ public class Maze {
 	 * @param point
 	 */
 	public void addWalkablePath(Point point) {
-		maze[point.x][point.y] = Block.EMPTY;
+		setCell(point.x, point.y, Block.EMPTY);
+	}
+
+	/**
+	 * Block this point with wall
+	 * 
+	 * @param point
+	 */
+	public void addWall(Point point) {
+		setCell(point.x, point.y, Block.WALL);
 	}
 
 	/**
@@ -140,15 +319,32 @@ public class Maze {
 	 */
 	public void border() {
 		for (int x = 0; x < width; x++) {
-			maze[x][0] = Block.WALL;
-			maze[x][height - 1] = Block.WALL;
+			setCell(x, 0, Block.WALL);
+			setCell(x, height - 1, Block.WALL);
 		}
 		for (int y = 0; y < height; y++) {
-			maze[0][y] = Block.WALL;
-			maze[width - 1][y] = Block.WALL;
+			setCell(0, y, Block.WALL);
+			setCell(width - 1, y, Block.WALL);
 		}
 	}
 
+	/**
+	 * Check if all cells on the edges of the maze are walls
+	 * 
+	 * @return
+	 */
+	private boolean isBorderClosed() {
+		byte wall = Block.WALL.getCode();
+
+		for (int x = 0; x < width; x++) {
+			if (maze.get(x, 0) != wall || maze.get(x, height - 1) != wall) return false;
+		}
+		for (int y = 0; y < height; y++) {
+			if (maze.get(0, y) != wall || maze.get(width - 1, y) != wall) return false;
+		}
+		return true;
+	}
+
 	/**
 	 * Check if it's not blocked by wall
 	 * 
@@ -156,23 +352,118 @@ public class Maze {
 	 * @return
 	 */
 	public boolean canWalkTo(Point point) {
-		// this way if some new block types will be implemented it will be safer to
-		// extend
-		if (maze[point.x][point.y] == Block.EMPTY) return true;
-		if (maze[point.x][point.y] == Block.START) return true;
-		if (maze[point.x][point.y] == Block.FINISH) return true;
-		return false;
+		// lookup table is build from Block.isWalkable() so if some new block types
+		// will be implemented it will be safer to extend
+		return CODE_WALKABLE[maze.get(point.x, point.y)];
+	}
+
+	/**
+	 * Check if it's not blocked by wall, cell is given by its row-major index
+	 * 
+	 * @param index
+	 * @return
+	 */
+	public boolean isWalkable(int index) {
+		return CODE_WALKABLE[maze.get(index)];
 	}
 
 	/**
 	 * Fully fill with walls.
 	 */
 	public void fill() {
-		for (int x = 0; x < width; x++) {
-			for (int y = 0; y < height; y++) {
-				maze[x][y] = Block.WALL;
+		maze.fill(Block.WALL.getCode());
+		journalAllChanged();
+	}
+
+	/**
+	 * Copy of this maze where all dead ends are filled with walls, the cells
+	 * which are left are the ones which can be on a path between start and
+	 * finish (and loops), so solvers don't have to walk into dead ends. The
+	 * copy is cached until this maze is changed, it shouldn't be changed itself.
+	 * When the copy is replaced by a newer one, the old one is closed.
+	 * 
+	 * Dead end is walkable cell which is not start or finish and has at most one
+	 * walkable neighbour. Filling it can make its neighbour a dead end, so the
+	 * neighbours are put on the worklist and each cell is checked only few
+	 * times.
+	 * 
+	 * @return
+	 * @throws Exception
+	 *           If the storage for the copy can't be created
+	 */
+	public Maze getDeadEndsFilled() throws Exception {
+		if (deadEndsFilled != null && deadEndsFilledVersion == version) return deadEndsFilled;
+
+		Maze filled = new Maze();
+		filled.setWidth(width);
+		filled.setHeight(height);
+		filled.initialize();
+		filled.fileName = fileName;
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				filled.maze.set(x, y, maze.get(x, y));
+			}
+		}
+
+		int[] offsets = getNeighbourOffsets();
+		int[] worklist = new int[1024];
+		int pending = 0;
+
+		for (int index = 0; index < getSize(); index++) {
+			if (filled.isDeadEnd(index, offsets)) {
+				if (pending == worklist.length) worklist = Arrays.copyOf(worklist, pending * 2);
+				worklist[pending++] = index;
+			}
+		}
+
+		byte wall = Block.WALL.getCode();
+		while (pending > 0) {
+			int index = worklist[--pending];
+			if (!filled.isDeadEnd(index, offsets)) continue;
+
+			filled.maze.set(index % width, index / width, wall);
+
+			// only one neighbour is walkable, it's the one which can become dead end
+			for (int offset : offsets) {
+				if (filled.isWalkable(index + offset)) {
+					if (pending == worklist.length) worklist = Arrays.copyOf(worklist, pending * 2);
+					worklist[pending++] = index + offset;
+				}
 			}
 		}
+
+		// the cells were written straight into the storage, the copy starts with
+		// clean journal
+		filled.journalAllChanged();
+
+		if (deadEndsFilled != null) deadEndsFilled.close();
+		deadEndsFilled = filled;
+		deadEndsFilledVersion = version;
+		return filled;
+	}
+
+	/**
+	 * Walkable cell which is not start or finish and has at most one walkable
+	 * neighbour. Cells on the edge are skipped, so the offsets never leave the
+	 * maze.
+	 * 
+	 * @param index
+	 * @param offsets
+	 * @return
+	 */
+	private boolean isDeadEnd(int index, int[] offsets) {
+		if (maze.get(index) != Block.EMPTY.getCode()) return false;
+
+		int x = index % width;
+		int y = index / width;
+		if (x == 0 || y == 0 || x == width - 1 || y == height - 1) return false;
+
+		int walkable = 0;
+		for (int offset : offsets) {
+			if (isWalkable(index + offset)) walkable++;
+		}
+		return walkable <= 1;
 	}
 
 	/**
@@ -196,7 +487,7 @@ public class Maze {
 			int emptyWallY = wall.y;
 
 			for (Point point : allDirections) {
-				if (maze[wall.x + point.x][wall.y + point.y] == Block.EMPTY) {
+				if (getCell(wall.x + point.x, wall.y + point.y) == Block.EMPTY.getCode()) {
 					emptyWallX = wall.x + point.x;
 					emptyWallY = wall.y + point.y;
 				}
@@ -206,13 +497,14 @@ public class Maze {
 			int deltaX = wall.x - emptyWallX;
 			int deltaY = wall.y - emptyWallY;
 
-			if (maze[wall.x + deltaX][wall.y + deltaY] == Block.WALL) {
-				maze[wall.x][wall.y] = Block.EMPTY;
+			if (getCell(wall.x + deltaX, wall.y + deltaY) == Block.WALL.getCode()) {
+				setCell(wall.x, wall.y, Block.EMPTY);
 				generateAddWalls(wall.x + deltaX, wall.y + deltaY);
 			}
 
 			wallList.remove(wall);
 		}
+		journalAllChanged();
 	}
 
 	/**
@@ -225,16 +517,280 @@ public class Maze {
 	private void generateAddWalls(int x, int y) {
 
 		// make center walkable
-		maze[x][y] = Block.EMPTY;
+		setCell(x, y, Block.EMPTY);
 
 		// all around add to list
 		for (Point point : allDirections) {
 			if (x > 1 && y > 1 && x < width - 2 && y < height - 2
-					&& maze[x + point.x][y + point.y] == Block.WALL)
+					&& getCell(x + point.x, y + point.y) == Block.WALL.getCode())
 				wallList.add(new Point(x + point.x, y + point.y));
 		}
 	}
 
+	/**
+	 * Label of the connected area of walkable cells which given cell belongs to,
+	 * two cells are reachable from each other only if they have the same label.
+	 * Labels are computed on the first call after any change of the maze.
+	 * 
+	 * @param index
+	 * @return label, or -1 for a wall
+	 */
+	public int getComponent(int index) {
+		if (components == null || componentsVersion != version) labelComponents();
+
+		return components[index];
+	}
+
+	/**
+	 * Abstract graph of clusters for hierarchical search, it's kept between the
+	 * queries and only the clusters which were changed since the last call are
+	 * built again
+	 * 
+	 * @return
+	 */
+	public MazeClusterGraph getClusterGraph() {
+		if (clusterGraph == null) {
+			clusterGraph = new MazeClusterGraph(this, MazeClusterGraph.CLUSTER_SIZE);
+		} else {
+			clusterGraph.refresh();
+		}
+		return clusterGraph;
+	}
+
+	/**
+	 * Graph of junctions connected by corridors, it's cached until the maze is
+	 * changed. The graph is built from the maze with dead ends filled, dead ends
+	 * can't be on any path and their side branches would make most of the cells
+	 * junctions.
+	 * 
+	 * @return
+	 * @throws Exception
+	 *           If the storage for the filled copy can't be created
+	 */
+	public MazeGraph getJunctionGraph() throws Exception {
+		if (junctionGraph == null || junctionGraphVersion != version) {
+			junctionGraph = new MazeGraph(getDeadEndsFilled());
+			junctionGraphVersion = version;
+		}
+		return junctionGraph;
+	}
+
+	/**
+	 * Hash of the content of the maze (dimensions and all cells), equal mazes
+	 * have equal fingerprint even when they are different objects. It's computed
+	 * on the first call after any change of the maze.
+	 * 
+	 * @return 64 bit FNV-1a hash
+	 */
+	public long getFingerprint() {
+		if (fingerprintVersion != version) {
+			long hash = 0xCBF29CE484222325L;
+			hash = (hash ^ width) * 0x100000001B3L;
+			hash = (hash ^ height) * 0x100000001B3L;
+			for (int index = 0; index < getSize(); index++) {
+				hash = (hash ^ maze.get(index)) * 0x100000001B3L;
+			}
+			fingerprint = hash;
+			fingerprintVersion = version;
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * Manhatan distances to the closest of the targets, shared by all solvers of
+	 * this maze with the same targets. Last used transforms are cached until the
+	 * maze is changed, up to DISTANCE_TRANSFORMS_BYTES of memory.
+	 * 
+	 * @param targets
+	 *          cell indexes of the targets
+	 * @return
+	 */
+	public MazeDistanceTransform getDistanceTransform(BitSet targets) {
+		if (distanceTransforms == null || distanceTransformsVersion != version) {
+			distanceTransforms = new WeightedCache<>(DISTANCE_TRANSFORMS_BYTES,
+					transform -> 2L * getSize());
+			distanceTransformsVersion = version;
+		}
+
+		return distanceTransforms.get((BitSet) targets.clone(),
+				key -> new MazeDistanceTransform(width, height, key.stream().toArray()));
+	}
+
+	/**
+	 * Flow field to all finishes of the maze
+	 * 
+	 * @return
+	 */
+	public MazeFlowField getFlowField() {
+		return getFlowField(getAllBlock(Block.FINISH));
+	}
+
+	/**
+	 * Flow field to the given destinations. Last used fields are cached until the
+	 * maze is changed, up to FLOW_FIELDS_BYTES of memory, so agents going to the
+	 * same destinations share one.
+	 * 
+	 * @param destinations
+	 * @return
+	 */
+	public MazeFlowField getFlowField(List<Point> destinations) {
+		if (flowFields == null || flowFieldsVersion != version) {
+			flowFields = new WeightedCache<>(FLOW_FIELDS_BYTES, field -> 5L * getSize());
+			flowFieldsVersion = version;
+		}
+
+		BitSet cells = new BitSet();
+		for (Point destination : destinations) {
+			cells.set(getIndex(destination));
+		}
+		return flowFields.get(cells, key -> new MazeFlowField(this, key));
+	}
+
+	/**
+	 * Landmarks for ALT heurestic, they are computed on the first call after any
+	 * change of the maze
+	 * 
+	 * @return
+	 */
+	public MazeLandmarks getLandmarks() {
+		if (landmarks == null || landmarksVersion != version) {
+			landmarks = new MazeLandmarks(this, MazeLandmarks.DEFAULT_LANDMARKS);
+			landmarksVersion = version;
+		}
+		return landmarks;
+	}
+
+	/**
+	 * Use already computed landmarks (for example loaded by MazeLandmarks.load())
+	 * for the current version of the maze
+	 * 
+	 * @param landmarks
+	 * @throws Exception
+	 *           If the landmarks were computed for other maze
+	 */
+	public void setLandmarks(MazeLandmarks landmarks) throws Exception {
+		if (landmarks.getWidth() != width || landmarks.getHeight() != height)
+			throw new Exception(String.format("Landmarks are for maze %dx%d, but the maze is %dx%d",
+					landmarks.getWidth(), landmarks.getHeight(), width, height));
+		if (landmarks.getFingerprint() != getFingerprint())
+			throw new Exception("Landmarks were computed for other maze");
+
+		this.landmarks = landmarks;
+		this.landmarksVersion = version;
+	}
+
+	/**
+	 * Check if solvers should use component labels to reject unreachable starts
+	 * and destinations before they search
+	 * 
+	 * @return
+	 */
+	public boolean isComponentLabelling() {
+		return componentLabelling;
+	}
+
+	/**
+	 * Enable or disable component labels for solvers. It costs one pass over the
+	 * maze after each change, so it pays off when the maze is solved more times
+	 * or when some destinations can't be reached.
+	 * 
+	 * @param componentLabelling
+	 */
+	public void setComponentLabelling(boolean componentLabelling) {
+		this.componentLabelling = componentLabelling;
+		if (!componentLabelling) components = null;
+	}
+
+	/**
+	 * One linear pass over the cells joining each walkable cell with its left
+	 * and upper neighbour (union-find with path halving), then each cell gets
+	 * the root of its set as the label
+	 */
+	private void labelComponents() {
+		int size = getSize();
+		if (components == null || components.length != size) components = new int[size];
+
+		for (int index = 0; index < size; index++) {
+			if (!isWalkable(index)) {
+				components[index] = -1;
+				continue;
+			}
+
+			components[index] = index;
+			if (index % width > 0 && components[index - 1] >= 0) unionComponents(index - 1, index);
+			if (index >= width && components[index - width] >= 0)
+				unionComponents(index - width, index);
+		}
+
+		for (int index = 0; index < size; index++) {
+			if (components[index] >= 0) components[index] = findComponent(index);
+		}
+		componentsVersion = version;
+	}
+
+	/**
+	 * Root of the set with path halving
+	 * 
+	 * @param index
+	 * @return
+	 */
+	private int findComponent(int index) {
+		while (components[index] != index) {
+			components[index] = components[components[index]];
+			index = components[index];
+		}
+		return index;
+	}
+
+	/**
+	 * Join both sets, smaller root is kept so the labels are stable
+	 * 
+	 * @param first
+	 * @param second
+	 */
+	private void unionComponents(int first, int second) {
+		int firstRoot = findComponent(first);
+		int secondRoot = findComponent(second);
+
+		if (firstRoot < secondRoot) {
+			components[secondRoot] = firstRoot;
+		} else if (secondRoot < firstRoot) {
+			components[firstRoot] = secondRoot;
+		}
+	}
+
+	/**
+	 * Indexes of the cells changed after given version, oldest change first. The
+	 * same cell can be listed multiple times if it was changed more times.
+	 * 
+	 * @param sinceVersion
+	 *          version the caller has seen last time
+	 * @return changed cells, or null when the journal doesn't reach so far back
+	 *         (too many changes, or the whole maze was loaded / generated / filled
+	 *         since) and the caller has to rescan the whole maze
+	 */
+	public int[] getChangedCells(long sinceVersion) {
+		if (sinceVersion < journalFloor || version - sinceVersion > JOURNAL_SIZE) return null;
+		if (sinceVersion >= version) return new int[0];
+
+		int[] changes = new int[(int) (version - sinceVersion)];
+		for (int change = 0; change < changes.length; change++) {
+			changes[change] = journal[(int) (sinceVersion + change) & (JOURNAL_SIZE - 1)];
+		}
+		return changes;
+	}
+
+	/**
+	 * Version of the maze, it's increased by each change of a cell and by each
+	 * change of the whole maze, so consumers can check what changed since they
+	 * saw it by getChangedCells()
+	 * 
+	 * @return
+	 */
+	public long getVersion() {
+		return version;
+	}
+
 	/**
 	 * Get whole maze as list
 	 * 
@@ -243,10 +799,12 @@ public class Maze {
 	 */
 	public LinkedList<Point> getAllBlock(Block block) {
 		LinkedList<Point> list = new LinkedList<>();
+		byte code = block.getCode();
 
+		// row-major storage, so this is just one linear pass over the cells
 		for (int y = 0; y < height; y++)
 			for (int x = 0; x < width; x++)
-				if (maze[x][y] == block) list.add(new Point(x, y));
+				if (maze.get(x, y) == code) list.add(new Point(x, y));
 
 		return list;
 	}
@@ -258,69 +816,496 @@ public class Maze {
 	 * @return
 	 */
 	public Block getBlock(Point point) {
-		return maze[point.x][point.y];
+		return CODE_TO_BLOCK[maze.get(point.x, point.y)];
+	}
+
+	/**
+	 * Get raw code of the cell from the packed grid
+	 * 
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	private byte getCell(int x, int y) {
+		return maze.get(x, y);
+	}
+
+	/**
+	 * Row-major index of the cell (y * width + x), initialize() doesn't allow
+	 * mazes with 2^31 or more cells so it always fits
+	 * 
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	public int getIndex(int x, int y) {
+		return y * width + x;
+	}
+
+	/**
+	 * Row-major index of the cell (y * width + x)
+	 * 
+	 * @param point
+	 * @return
+	 */
+	public int getIndex(Point point) {
+		return point.y * width + point.x;
+	}
+
+	/**
+	 * Offsets which will move the cell index in all cardinal directions, in the
+	 * same order as the directions are used by solvers: left, right, down, up
+	 * 
+	 * @return
+	 */
+	public int[] getNeighbourOffsets() {
+		return new int[] { -1, 1, width, -width };
+	}
+
+	/**
+	 * Convert row-major index of the cell back to coordinates
+	 * 
+	 * @param index
+	 * @return
+	 */
+	public Point getPoint(int index) {
+		return new Point(index % width, index / width);
+	}
+
+	/**
+	 * @return how many cells the maze has (width * height)
+	 */
+	public int getSize() {
+		return width * height;
 	}
 
 	/**
 	 * @return the height
 	 */
-	public short getHeight() {
+	public int getHeight() {
 		return height;
 	}
 
 	/**
 	 * @return the width
 	 */
-	public short getWidth() {
+	public int getWidth() {
 		return width;
 	}
 
 	/**
 	 * Create new maze with given width & height (width & height setup by
-	 * different methods)
+	 * different methods). Small mazes are kept in the heap, huge mazes are
+	 * paged in from memory mapped tiles.
+	 * 
+	 * @throws Exception
+	 *           If the maze has too many cells to be addressed by int index, or
+	 *           the temporary file for tiles can't be created
 	 */
-	public void initialize() {
-		maze = new Block[width][height];
+	public void initialize() throws Exception {
+		if ((long) width * height > MAX_MAZE_CELLS)
+			throw new Exception(String.format(
+					"Maze %dx%d has more than %d cells, which is the maximum allowed", width, height,
+					MAX_MAZE_CELLS));
+
+		maze.close();
+		if ((long) width * height <= MAX_HEAP_CELLS) {
+			maze = new MazeStorageArray(width, height);
+		} else {
+			maze = new MazeStorageTiled(width, height);
+		}
 		border();
+		journalAllChanged();
 	}
 
 	/**
-	 * Load maze from file
+	 * Whole maze changed, cells changed before this can't be listed anymore
+	 */
+	private void journalAllChanged() {
+		version++;
+		journalFloor = version;
+	}
+
+	/**
+	 * Load maze from file, format is picked by the extension (BINARY_EXTENSION
+	 * for binary format, anything else is text format)
 	 * 
 	 * @param fileName
 	 * @return
 	 * @throws Exception
 	 */
 	public boolean load(String fileName) throws Exception {
-		BufferedReader br = null;
-		String line = new String();
+		if (fileName.endsWith(BINARY_EXTENSION)) return loadBinary(fileName);
 
-		br = new BufferedReader(new FileReader(fileName));
+		return loadText(fileName);
+	}
 
-		setDimenstions(br.readLine());
-		initialize();
+	/**
+	 * Load maze from binary file, header is verified against the checksum and
+	 * then the wall plane is copied to the grid, 8 cells from each byte
+	 * 
+	 * @param fileName
+	 * @return
+	 * @throws Exception
+	 */
+	private boolean loadBinary(String fileName) throws Exception {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			CRC32 checksum = new CRC32();
 
-		short lineNumber = 1;
-		while ((line = br.readLine()) != null) {
-			loadLineOfMaze(lineNumber, line);
-			lineNumber++;
+			// dimensions first, so we know how big the coordinate tables are
+			ByteBuffer header = readFully(channel, 0, 18);
+			if (header.getInt(0) != BINARY_MAGIC)
+				throw new Exception("File " + fileName + " is not a binary maze");
+			if (header.getShort(4) != BINARY_VERSION)
+				throw new Exception("Binary maze version " + header.getShort(4) + " is not supported");
+
+			// border and at least one cell inside it
+			if (header.getInt(6) < 3 || header.getInt(10) < 3)
+				throw new Exception(String.format("Maze %dx%d from the header of %s is too small",
+						header.getInt(6), header.getInt(10), fileName));
+			setWidth(header.getInt(6));
+			setHeight(header.getInt(10));
+
+			List<Point> starts = readPoints(channel, 14, header.getInt(14));
+			long position = 18 + starts.size() * 8;
+			ByteBuffer finishCount = readFully(channel, position, 4);
+			List<Point> finishes = readPoints(channel, position, finishCount.getInt(0));
+			position += 4 + finishes.size() * 8;
+
+			checksum.update(readFully(channel, 0, (int) position));
+			int expectedChecksum = readFully(channel, position, 4).getInt(0);
+			position += 4;
+
+			long cells = (long) width * height;
+			if (channel.size() - position < (cells + 7) / 8)
+				throw new Exception(String.format("Maze %dx%d from the header is bigger than the file %s",
+						width, height, fileName));
+
+			initialize();
+
+			// the wall plane, one bit per cell (set bit is wall), row-major order
+			int x = 0;
+			int y = 0;
+			byte wall = Block.WALL.getCode();
+			byte empty = Block.EMPTY.getCode();
+
+			while (cells > 0) {
+				long windowSize = Math.min(LOAD_WINDOW_BYTES, (cells + 7) / 8);
+				MappedByteBuffer plane = channel.map(MapMode.READ_ONLY, position, windowSize);
+				checksum.update(plane.duplicate());
+
+				for (int index = 0; index < windowSize; index++) {
+					int bits = plane.get(index);
+					for (int bit = 0; bit < 8 && cells > 0; bit++, cells--) {
+						maze.set(x, y, ((bits >> bit) & 1) == 1 ? wall : empty);
+						if (++x == width) {
+							x = 0;
+							y++;
+						}
+					}
+				}
+				position += windowSize;
+			}
+
+			if ((int) checksum.getValue() != expectedChecksum)
+				throw new Exception("Checksum of the binary maze " + fileName + " doesn't match");
+
+			// text loader adds the border, here it comes from the file, solvers step
+			// to the neighbours without bound checks so it has to be closed
+			if (!isBorderClosed())
+				throw new Exception("Binary maze " + fileName + " has open cell on its border");
+
+			starts.forEach(this::addStart);
+			finishes.forEach(this::addFinish);
+		}
+
+		journalAllChanged();
+		this.fileName = fileName;
+		return true;
+	}
+
+	/**
+	 * Read exact amount of bytes from given position of the file
+	 * 
+	 * @param channel
+	 * @param position
+	 * @param size
+	 * @return buffer ready to be read
+	 * @throws Exception
+	 *           If the file ends too soon
+	 */
+	private ByteBuffer readFully(FileChannel channel, long position, int size) throws Exception {
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0)
+				throw new Exception("Binary maze ended too soon");
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Read coordinate table (count followed by x,y pairs)
+	 * 
+	 * @param channel
+	 * @param position
+	 *          position of the count
+	 * @param count
+	 * @return
+	 * @throws Exception
+	 */
+	private List<Point> readPoints(FileChannel channel, long position, int count) throws Exception {
+		List<Point> points = new ArrayList<>();
+
+		// count comes from the file, it has to fit into rest of the file
+		if (count < 0 || count > (channel.size() - position - 4) / 8)
+			throw new Exception("Binary maze has broken coordinate table");
+
+		ByteBuffer table = readFully(channel, position + 4, count * 8);
+		for (int index = 0; index < count; index++) {
+			Point point = new Point(table.getInt(), table.getInt());
+			if (point.x < 1 || point.y < 1 || point.x >= width - 1 || point.y >= height - 1)
+				throw new Exception("Binary maze has point " + point + " outside of the border");
+			points.add(point);
 		}
+		return points;
+	}
+
+	/**
+	 * Load maze from text file
+	 * 
+	 * @param fileName
+	 * @return
+	 * @throws Exception
+	 */
+	private boolean loadText(String fileName) throws Exception {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			long fileSize = channel.size();
+
+			if (fileSize == 0) throw new Exception("File " + fileName + " is empty");
+
+			// the file is mapped in windows (a mapping can't be bigger than 2GB),
+			// each window ends on last complete line inside it
+			long windowStart = 0;
+			int lineNumber = 0;
+
+			while (windowStart < fileSize) {
+				long windowSize = Math.min(LOAD_WINDOW_BYTES, fileSize - windowStart);
+				boolean lastWindow = windowStart + windowSize == fileSize;
+
+				MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, windowStart, windowSize);
 
-		br.close();
+				int rowsStart = 0;
+				if (lineNumber == 0) {
+					int headerEnd = findLineEnd(buffer, 0, buffer.limit());
+					setDimenstions(loadHeader(buffer, 0, headerEnd));
 
+					// do not allocate anything for header which is lying about the size
+					long cellsInFile = fileSize - (headerEnd + 1);
+					if (cellsInFile < (long) (width - 2) * (height - 2))
+						throw new Exception(String.format(
+								"Maze %dx%d from the header is bigger than the file %s", width - 2, height - 2,
+								fileName));
+
+					initialize();
+					lineNumber++;
+					rowsStart = Math.min(headerEnd + 1, buffer.limit());
+				}
+
+				// only complete lines, the incomplete one will be in the next window
+				int rowsEnd = lastWindow ? buffer.limit() : findLastLineEnd(buffer, rowsStart) + 1;
+
+				if (rowsEnd == 0)
+					throw new Exception("Line " + lineNumber + " is longer than " + LOAD_WINDOW_BYTES
+							+ " bytes");
+
+				// small files keep single threaded path, so tiny mazes have no overhead
+				if (rowsEnd - rowsStart < PARALLEL_LOAD_BYTES) {
+					lineNumber = loadLines(buffer, rowsStart, rowsEnd, lineNumber);
+				} else {
+					lineNumber = loadLinesParallel(buffer, rowsStart, rowsEnd, lineNumber);
+				}
+
+				windowStart += rowsEnd;
+			}
+		}
+
+		journalAllChanged();
 		this.fileName=fileName;
 		return true;
 	}
 
 	/**
-	 * Parse one line a time
+	 * Find where current line ends (index of the new line character)
 	 * 
+	 * @param buffer
+	 * @param lineStart
+	 * @param limit
+	 *          end of the area, line without new line character at the end of
+	 *          the area is still a line
+	 * @return index of the new line, or limit
+	 */
+	private int findLineEnd(ByteBuffer buffer, int lineStart, int limit) {
+		for (int index = lineStart; index < limit; index++) {
+			if (buffer.get(index) == '\n') return index;
+		}
+
+		return limit;
+	}
+
+	/**
+	 * Find the last new line character in the buffer
+	 * 
+	 * @param buffer
+	 * @param from
+	 * @return index of the new line, or from - 1 if there is none
+	 */
+	private int findLastLineEnd(ByteBuffer buffer, int from) {
+		for (int index = buffer.limit() - 1; index >= from; index--) {
+			if (buffer.get(index) == '\n') return index;
+		}
+
+		return from - 1;
+	}
+
+	/**
+	 * Parse all lines in given area one by one
+	 * 
+	 * @param buffer
+	 * @param start
+	 *          start of the first line
+	 * @param end
+	 *          end of the area, just behind new line or end of the file
 	 * @param lineNumber
-	 * @param line
+	 *          number of the first line
+	 * @return number of the line which follows after this area
+	 * @throws Exception
+	 */
+	private int loadLines(ByteBuffer buffer, int start, int end, int lineNumber) throws Exception {
+		int lineStart = start;
+
+		while (lineStart < end) {
+			int lineEnd = findLineEnd(buffer, lineStart, end);
+			loadLineOfMaze(lineNumber, buffer, lineStart, lineEnd);
+			lineNumber++;
+			lineStart = lineEnd + 1;
+		}
+
+		return lineNumber;
+	}
+
+	/**
+	 * Rows are independent once dimensions are known, so the area is split into
+	 * chunks on new line boundaries. First each chunk counts its lines (to know
+	 * on which row it starts) and then all chunks are parsed at once by the
+	 * common ForkJoinPool, each of them writing straight into its own rows.
+	 * 
+	 * @param buffer
+	 * @param start
+	 *          start of the first line
+	 * @param end
+	 *          end of the area, just behind new line or end of the file
+	 * @param lineNumber
+	 *          number of the first line
+	 * @return number of the line which follows after this area
+	 * @throws Exception
+	 *           First error (by the order in the file) from any chunk
+	 */
+	private int loadLinesParallel(ByteBuffer buffer, int start, int end, int lineNumber)
+			throws Exception {
+		int chunks = ForkJoinPool.getCommonPoolParallelism() * 4;
+
+		// each chunk begins just behind a new line
+		int[] bounds = new int[chunks + 1];
+		bounds[0] = start;
+		bounds[chunks] = end;
+		for (int chunk = 1; chunk < chunks; chunk++) {
+			int position = start + (int) ((long) (end - start) * chunk / chunks);
+			position = Math.max(bounds[chunk - 1], position);
+			bounds[chunk] = Math.min(findLineEnd(buffer, position, end) + 1, end);
+		}
+
+		// count lines in each chunk, then sum them to get first line of each chunk
+		int[] firstLine = new int[chunks + 1];
+		IntStream.range(0, chunks).parallel().forEach(chunk -> {
+			int lines = 0;
+			for (int index = bounds[chunk]; index < bounds[chunk + 1]; index++) {
+				if (buffer.get(index) == '\n') lines++;
+			}
+			// last line of the file doesn't have to end with new line
+			if (bounds[chunk + 1] > bounds[chunk] && buffer.get(bounds[chunk + 1] - 1) != '\n') lines++;
+			firstLine[chunk + 1] = lines;
+		});
+
+		firstLine[0] = lineNumber;
+		for (int chunk = 1; chunk <= chunks; chunk++) {
+			firstLine[chunk] += firstLine[chunk - 1];
+		}
+
+		Exception[] errors = new Exception[chunks];
+		IntStream.range(0, chunks).parallel().forEach(chunk -> {
+			try {
+				loadLines(buffer, bounds[chunk], bounds[chunk + 1], firstLine[chunk]);
+			} catch (Exception loadException) {
+				errors[chunk] = loadException;
+			}
+		});
+
+		for (Exception error : errors) {
+			if (error != null) throw error;
+		}
+
+		return firstLine[chunks];
+	}
+
+	/**
+	 * Decode the header line with dimensions
+	 * 
+	 * @param buffer
+	 * @param lineStart
+	 * @param lineEnd
+	 * @return
 	 */
-	private void loadLineOfMaze(short lineNumber, String line) {
+	private String loadHeader(ByteBuffer buffer, int lineStart, int lineEnd) {
+		byte[] header = new byte[lineEnd - lineStart];
+
+		for (int index = 0; index < header.length; index++) {
+			header[index] = buffer.get(lineStart + index);
+		}
+
+		return new String(header, StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Parse one line a time straight from the mapped file
+	 * 
+	 * @param lineNumber
+	 * @param buffer
+	 * @param lineStart
+	 *          index of the first character of the line
+	 * @param lineEnd
+	 *          index of the new line character
+	 * @throws Exception
+	 *           When line is too short, or there are more lines than the maze
+	 *           height
+	 */
+	private void loadLineOfMaze(int lineNumber, ByteBuffer buffer, int lineStart, int lineEnd)
+			throws Exception {
+
+		// windows line endings
+		if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') lineEnd--;
+
+		if (lineEnd - lineStart < width - 2)
+			throw new Exception(String.format("Line %d has %d blocks, but maze is %d blocks wide",
+					lineNumber, lineEnd - lineStart, width - 2));
+
+		if (lineNumber >= height - 1)
+			throw new Exception(String.format("Line %d is outside of the maze which is %d lines high",
+					lineNumber, height - 2));
+
 		for (int x = 0; x < width - 2; x++) {
-			maze[x + 1][lineNumber] = Block.getEnum(line.charAt(x));
+			maze.set(x + 1, lineNumber, BYTE_TO_CODE[buffer.get(lineStart + x) & 0xFF]);
 		}
 	}
 
@@ -333,26 +1318,136 @@ public class Maze {
 
 		for (int y = 0; y < height; y++) {
 			for (int x = 0; x < width; x++) {
-				System.out.print(maze[x][y]);
+				System.out.print(CODE_TO_BLOCK[getCell(x, y)]);
 			}
 			System.out.println("");
 		}
 	}
 
 	/**
-	 * Save maze to a file
+	 * Save maze to a file, format is picked by the extension (BINARY_EXTENSION
+	 * for binary format, anything else is text format)
 	 * 
 	 * @param fileName
 	 * @return
 	 * @throws Exception
 	 */
 	public boolean save(String fileName) throws Exception {
+		if (fileName.endsWith(BINARY_EXTENSION)) return saveBinary(fileName);
+
+		return saveText(fileName);
+	}
+
+	/**
+	 * Save maze to a binary file. Header contains dimensions, table of starts and
+	 * table of finishes and checksum (CRC32 of the header and the wall plane),
+	 * then the wall plane follows with one bit per cell (set bit is wall).
+	 * 
+	 * @param fileName
+	 * @return
+	 * @throws Exception
+	 */
+	private boolean saveBinary(String fileName) throws Exception {
+		List<Point> starts = getAllBlock(Block.START);
+		List<Point> finishes = getAllBlock(Block.FINISH);
+
+		ByteBuffer header = ByteBuffer.allocate(18 + 4 + (starts.size() + finishes.size()) * 8);
+		header.putInt(BINARY_MAGIC);
+		header.putShort(BINARY_VERSION);
+		header.putInt(width);
+		header.putInt(height);
+		header.putInt(starts.size());
+		starts.forEach(point -> header.putInt(point.x).putInt(point.y));
+		header.putInt(finishes.size());
+		finishes.forEach(point -> header.putInt(point.x).putInt(point.y));
+		header.flip();
+
+		CRC32 checksum = new CRC32();
+		checksum.update(header.duplicate());
+
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+			// the checksum is known only after the plane is written, so the space
+			// for it is skipped now and filled at the end
+			long checksumPosition = header.limit();
+			channel.write(header, 0);
+			channel.position(checksumPosition + 4);
+
+			ByteBuffer plane = ByteBuffer.allocate(1 << 20);
+			int bits = 0;
+			int bit = 0;
+
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					if (!CODE_WALKABLE[getCell(x, y)]) bits |= 1 << bit;
+
+					if (++bit == 8) {
+						savePlaneByte(channel, plane, checksum, bits);
+						bits = 0;
+						bit = 0;
+					}
+				}
+			}
+			if (bit > 0) savePlaneByte(channel, plane, checksum, bits);
+			savePlaneFlush(channel, plane, checksum);
+
+			ByteBuffer checksumBuffer = ByteBuffer.allocate(4);
+			checksumBuffer.putInt(0, (int) checksum.getValue());
+			channel.write(checksumBuffer, checksumPosition);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Add one byte of the wall plane into the buffer, flush it when it's full
+	 * 
+	 * @param channel
+	 * @param plane
+	 * @param checksum
+	 * @param bits
+	 * @throws Exception
+	 */
+	private void savePlaneByte(FileChannel channel, ByteBuffer plane, CRC32 checksum, int bits)
+			throws Exception {
+		plane.put((byte) bits);
+		if (!plane.hasRemaining()) savePlaneFlush(channel, plane, checksum);
+	}
+
+	/**
+	 * Write the buffered part of the wall plane to the file
+	 * 
+	 * @param channel
+	 * @param plane
+	 * @param checksum
+	 * @throws Exception
+	 */
+	private void savePlaneFlush(FileChannel channel, ByteBuffer plane, CRC32 checksum)
+			throws Exception {
+		plane.flip();
+		checksum.update(plane.array(), 0, plane.limit());
+		while (plane.hasRemaining()) {
+			channel.write(plane);
+		}
+		plane.clear();
+	}
+
+	/**
+	 * Save maze to a text file
+	 * 
+	 * @param fileName
+	 * @return
+	 * @throws Exception
+	 */
+	private boolean saveText(String fileName) throws Exception {
 		PrintWriter printer = new PrintWriter(new File(fileName));
 		printer.write(width + " " + height + "\n");
 
 		for (int y = 0; y < height; y++) {
 			for (int x = 0; x < width; x++) {
-				printer.write(maze[x][y].getChar());
+				Block block = CODE_TO_BLOCK[getCell(x, y)];
+				printer.write(block == null ? Block.NULL.getChar() : block.getChar());
 			}
 			printer.write("\n");
 		}
@@ -362,6 +1457,22 @@ public class Maze {
 		return true;
 	}
 
+	/**
+	 * Store block into the packed grid, each real change is written to the
+	 * journal
+	 * 
+	 * @param x
+	 * @param y
+	 * @param block
+	 */
+	private void setCell(int x, int y, Block block) {
+		if (maze.get(x, y) == block.getCode()) return;
+
+		maze.set(x, y, block.getCode());
+		journal[(int) version & (JOURNAL_SIZE - 1)] = getIndex(x, y);
+		version++;
+	}
+
 	/**
 	 * Set dimensions of the maze
 	 * @param line
@@ -370,19 +1481,19 @@ public class Maze {
 	private void setDimenstions(String line) throws Exception {
 		Scanner dimensions = new Scanner(line);
 
-		setWidth((short) (2 + Short.parseShort(dimensions.next())));
-		setHeight((short) (2 + Short.parseShort(dimensions.next())));
+		setWidth(2 + Integer.parseInt(dimensions.next()));
+		setHeight(2 + Integer.parseInt(dimensions.next()));
 
 		dimensions.close();
 	}
 
 	/**
-	 * If small enough (defualt 1002) will set height.
+	 * If small enough (defualt 131072) will set height.
 	 * 
 	 * @param height
 	 *          the height to set
 	 */
-	public void setHeight(short height) throws Exception {
+	public void setHeight(int height) throws Exception {
 
 		if (height > MAX_MAZE_HEIGHT)
 			throw new Exception(String.format("Height %d is bigger than maximum allowed height %d",
@@ -392,11 +1503,11 @@ public class Maze {
 	}
 
 	/**
-	 * If small enough (defualt 1002) will set width.
+	 * If small enough (defualt 131072) will set width.
 	 * @param width
 	 *          the width to set
 	 */
-	public void setWidth(short width) throws Exception {
+	public void setWidth(int width) throws Exception {
 
 		if (width > MAX_MAZE_WIDTH)
 			throw new Exception(String.format("Width %d is bigger than maximum allowed width %d", width,
@@ -0,0 +1,297 @@
+package eu.antonkrug;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import utils.IndexedHeap;
+import utils.Pair;
+
+/**
+ * Answers many (start, goal) queries against one maze. Each query is A* with
+ * manhatan heurestic over cell indexes, same as ASTAR_BINARY_HEAP, but nothing
+ * is allocated per query except the path itself: scratch arrays as big as the
+ * maze are reused by many queries, arrays are not cleared between queries,
+ * each search has its own stamp instead.
+ * 
+ * A batch is split into few chunks for the threads of the common ForkJoinPool,
+ * each chunk borrows one set of scratch arrays from the pool and solves all its
+ * queries with it. The pool is emptied when the batch ends, so the arrays are
+ * not kept alive by the worker threads after it. Maze is only read and its
+ * storage (array or tiled memory mapped file) reads without any lock, so the
+ * threads share nothing but the pool and throughput grows with the cores.
+ * Maze must not be changed while a batch is running.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1.1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeBatchSolver {
+
+	/**
+	 * Result of one query
+	 */
+	public static class Route {
+
+		private final Point	goal;
+		// from start to goal, null when there is no path
+		private final int[]	path;
+		private final Point	start;
+
+		private Route(Point start, Point goal, int[] path) {
+			this.start = start;
+			this.goal = goal;
+			this.path = path;
+		}
+
+		/**
+		 * @return the goal
+		 */
+		public Point getGoal() {
+			return goal;
+		}
+
+		/**
+		 * @return number of steps, or -1 when there is no path
+		 */
+		public int getLength() {
+			return path == null ? -1 : path.length - 1;
+		}
+
+		/**
+		 * @return the start
+		 */
+		public Point getStart() {
+			return start;
+		}
+
+		/**
+		 * @return cells from the start to the goal (both included), or null when
+		 *         there is no path
+		 */
+		public int[] getPathIndices() {
+			return path;
+		}
+
+	}
+
+	/**
+	 * Arrays of one chunk, reused by all its queries
+	 */
+	private static class Scratch {
+
+		// search which set the g value or closed the cell
+		private final int[]				closed;
+		private final int[]				g;
+		private final int[]				parent;
+		private int								search;
+		private final int[]				seen;
+		private final IndexedHeap	visit;
+
+		private Scratch(int size) {
+			closed = new int[size];
+			g = new int[size];
+			parent = new int[size];
+			seen = new int[size];
+			search = 0;
+			visit = new IndexedHeap(size);
+		}
+
+		/**
+		 * Forget all stamps, when they would overflow
+		 */
+		private void reset() {
+			Arrays.fill(closed, 0);
+			Arrays.fill(seen, 0);
+			search = 0;
+		}
+
+	}
+
+	// chunks per thread, so threads which finish early can help the others
+	private final static int												CHUNKS_PER_THREAD	= 4;
+
+	private final Maze															maze;
+	private final int[]															neighbourOffsets;
+	// scratch arrays which are not used by any chunk right now
+	private final ConcurrentLinkedQueue<Scratch>	scratch;
+
+	/**
+	 * @param maze
+	 *          already loaded maze
+	 */
+	public MazeBatchSolver(Maze maze) {
+		this.maze = maze;
+		this.neighbourOffsets = maze.getNeighbourOffsets();
+		this.scratch = new ConcurrentLinkedQueue<>();
+	}
+
+	/**
+	 * Take unused scratch arrays from the pool, or allocate new ones
+	 * 
+	 * @return
+	 */
+	private Scratch borrow() {
+		Scratch arrays = scratch.poll();
+
+		return arrays == null ? new Scratch(maze.getSize()) : arrays;
+	}
+
+	/**
+	 * Convert the path of the route to Points
+	 * 
+	 * @param route
+	 * @return points from the start to the goal, or null when there is no path
+	 */
+	public List<Point> getPath(Route route) {
+		if (route.getPathIndices() == null) return null;
+
+		List<Point> points = new LinkedList<>();
+		for (int index : route.getPathIndices()) {
+			points.add(maze.getPoint(index));
+		}
+		return points;
+	}
+
+	/**
+	 * A* from the start to the goal in given scratch arrays
+	 * 
+	 * @param arrays
+	 * @param start
+	 * @param goal
+	 * @return path from the start to the goal, or null
+	 */
+	private int[] search(Scratch arrays, int start, int goal) {
+		if (!maze.isWalkable(start) || !maze.isWalkable(goal)) return null;
+		if (maze.isComponentLabelling() && maze.getComponent(start) != maze.getComponent(goal))
+			return null;
+
+		if (arrays.search == Integer.MAX_VALUE) arrays.reset();
+		int search = ++arrays.search;
+		int width = maze.getWidth();
+		int goalX = goal % width;
+		int goalY = goal / width;
+
+		arrays.visit.clear();
+		arrays.seen[start] = search;
+		arrays.g[start] = 0;
+		arrays.parent[start] = -1;
+		arrays.visit.push(start, Math.abs(start % width - goalX) + Math.abs(start / width - goalY));
+
+		while (!arrays.visit.isEmpty()) {
+			int current = arrays.visit.pop();
+			if (current == goal) return trace(arrays, goal);
+
+			arrays.closed[current] = search;
+			int cost = arrays.g[current] + 1;
+
+			for (int offset : neighbourOffsets) {
+				int next = current + offset;
+				if (arrays.closed[next] == search || !maze.isWalkable(next)) continue;
+				if (arrays.seen[next] == search && cost >= arrays.g[next]) continue;
+
+				arrays.seen[next] = search;
+				arrays.g[next] = cost;
+				arrays.parent[next] = current;
+				arrays.visit.push(next,
+						cost + Math.abs(next % width - goalX) + Math.abs(next / width - goalY));
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Solve one query, its scratch arrays are kept in the pool for the next
+	 * queries until a batch ends
+	 * 
+	 * @param start
+	 * @param goal
+	 * @return
+	 */
+	public Route solve(Point start, Point goal) {
+		Scratch arrays = borrow();
+		try {
+			return solve(arrays, start, goal);
+		} finally {
+			scratch.offer(arrays);
+		}
+	}
+
+	/**
+	 * Solve all queries, they are split into chunks for the threads of the common
+	 * ForkJoinPool. All scratch arrays are released when the batch ends.
+	 * 
+	 * @param queries
+	 *          pairs of start and goal
+	 * @return routes in the same order as the queries
+	 */
+	public List<Route> solve(List<Pair<Point, Point>> queries) {
+		// labels are built lazily, so build them before the threads need them
+		if (maze.isComponentLabelling() && maze.getSize() > 0) maze.getComponent(0);
+
+		List<Pair<Point, Point>> pairs = new ArrayList<>(queries);
+		Route[] routes = new Route[pairs.size()];
+		int chunks = Math.min(pairs.size(), ForkJoinPool.getCommonPoolParallelism()
+				* CHUNKS_PER_THREAD);
+
+		try {
+			// every chunk takes each chunks-th query, so slow areas are spread
+			IntStream.range(0, chunks).parallel().forEach(chunk -> {
+				Scratch arrays = borrow();
+				try {
+					for (int query = chunk; query < routes.length; query += chunks) {
+						routes[query] = solve(arrays, pairs.get(query).first, pairs.get(query).second);
+					}
+				} finally {
+					scratch.offer(arrays);
+				}
+			});
+		} finally {
+			scratch.clear();
+		}
+		return new ArrayList<>(Arrays.asList(routes));
+	}
+
+	/**
+	 * Solve one query in given scratch arrays
+	 * 
+	 * @param arrays
+	 * @param start
+	 * @param goal
+	 * @return
+	 */
+	private Route solve(Scratch arrays, Point start, Point goal) {
+		return new Route(start, goal, search(arrays, maze.getIndex(start), maze.getIndex(goal)));
+	}
+
+	/**
+	 * Steps back from the goal through the parents
+	 * 
+	 * @param arrays
+	 * @param goal
+	 * @return cells from the start to the goal
+	 */
+	private int[] trace(Scratch arrays, int goal) {
+		int[] path = new int[arrays.g[goal] + 1];
+
+		int index = goal;
+		for (int position = path.length - 1; position >= 0; position--) {
+			path[position] = index;
+			index = arrays.parent[index];
+		}
+		return path;
+	}
+
+}
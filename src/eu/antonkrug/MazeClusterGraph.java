@@ -0,0 +1,421 @@
+package eu.antonkrug;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Abstract graph for hierarchical path finding (HPA*). The maze is split into
+ * square clusters, on each border between two clusters the runs of cells which
+ * are walkable on both sides are entrances. Short run has one entrance node in
+ * the middle, long run one on each end, each node is a cell inside the cluster
+ * and the cell on the other side of the border is the node of the neighbour
+ * cluster (they are connected by a step of cost 1). Distances between all
+ * entrance nodes of a cluster are precomputed by BFS limited to the cluster.
+ * 
+ * Nodes of each cluster are a continuous range of node ids. When the maze is
+ * changed, refresh() reads the changed cells from the maze journal and only
+ * the clusters with changed cells (and their neighbours when the cell is on
+ * the border) get new range at the end, the old range is garbage until whole
+ * node table is compacted.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeClusterGraph {
+
+	public static final int	CLUSTER_SIZE			= 16;
+	public static final int	UNREACHABLE				= Integer.MAX_VALUE;
+
+	// runs of entrance cells this long get a node on each end
+	private static final int	LONG_ENTRANCE			= 6;
+
+	// distances between the nodes of each cluster, from * count + to
+	private int[][]					clusterDistances;
+	private int[]						clusterNodeCount;
+	private int[]						clusterNodeStart;
+	private int							clustersBuilt;
+	private final int				clusterSize;
+	private int							clustersX;
+	private int							clustersY;
+	private int							liveNodes;
+	// scratch space for BFS inside one cluster, by cell position in the cluster
+	private int[]						localDistance;
+	private int[]						localQueue;
+	private final Maze			maze;
+	private int[]						neighbourOffsets;
+	private int[]						nodeCells;
+	private int							nodeCount;
+	// version of the maze the graph is built for
+	private long						version;
+
+	/**
+	 * Build the graph for the whole maze.
+	 * 
+	 * @param maze
+	 * @param clusterSize
+	 *          width and height of one cluster in cells
+	 */
+	public MazeClusterGraph(Maze maze, int clusterSize) {
+		this.maze = maze;
+		this.clusterSize = clusterSize;
+		this.neighbourOffsets = maze.getNeighbourOffsets();
+		this.localDistance = new int[clusterSize * clusterSize];
+		this.localQueue = new int[clusterSize * clusterSize];
+		this.clustersBuilt = 0;
+
+		buildAll();
+	}
+
+	/**
+	 * Add node for the cell into the cluster which is being built, corner cell
+	 * can be entrance from two sides but it's added only once
+	 * 
+	 * @param first
+	 *          first node of the cluster
+	 * @param cell
+	 */
+	private void addNode(int first, int cell) {
+		for (int node = first; node < nodeCount; node++) {
+			if (nodeCells[node] == cell) return;
+		}
+
+		if (nodeCount == nodeCells.length) nodeCells = Arrays.copyOf(nodeCells, nodeCount * 2);
+		nodeCells[nodeCount++] = cell;
+	}
+
+	/**
+	 * Find runs of the border cells which are walkable on both sides and add
+	 * their entrance nodes. Both clusters of the border compute the same runs,
+	 * so their nodes are always facing each other.
+	 * 
+	 * @param first
+	 *          first node of the cluster
+	 * @param borderStart
+	 *          first cell of the border inside the cluster
+	 * @param step
+	 *          offset to the next border cell
+	 * @param length
+	 *          number of the border cells
+	 * @param across
+	 *          offset to the cell on the other side of the border
+	 */
+	private void addEntrances(int first, int borderStart, int step, int length, int across) {
+		int runStart = -1;
+
+		for (int position = 0; position <= length; position++) {
+			int cell = borderStart + position * step;
+			boolean open = position < length && maze.isWalkable(cell)
+					&& maze.isWalkable(cell + across);
+
+			if (open && runStart < 0) runStart = position;
+
+			if (!open && runStart >= 0) {
+				int runEnd = position - 1;
+				if (runEnd - runStart + 1 >= LONG_ENTRANCE) {
+					addNode(first, borderStart + runStart * step);
+					addNode(first, borderStart + runEnd * step);
+				} else {
+					addNode(first, borderStart + (runStart + runEnd) / 2 * step);
+				}
+				runStart = -1;
+			}
+		}
+	}
+
+	/**
+	 * Build all clusters from scratch
+	 */
+	private void buildAll() {
+		clustersX = (maze.getWidth() + clusterSize - 1) / clusterSize;
+		clustersY = (maze.getHeight() + clusterSize - 1) / clusterSize;
+
+		int clusters = clustersX * clustersY;
+		clusterNodeStart = new int[clusters];
+		clusterNodeCount = new int[clusters];
+		clusterDistances = new int[clusters][];
+		nodeCells = new int[clusters * 4 + 16];
+		nodeCount = 0;
+		liveNodes = 0;
+
+		for (int cluster = 0; cluster < clusters; cluster++) {
+			buildCluster(cluster);
+		}
+		version = maze.getVersion();
+	}
+
+	/**
+	 * Find entrances on all borders of the cluster and distances between them,
+	 * the nodes are added as new range at the end of the node table
+	 * 
+	 * @param cluster
+	 */
+	private void buildCluster(int cluster) {
+		int width = maze.getWidth();
+		int clusterX = cluster % clustersX;
+		int clusterY = cluster / clustersX;
+		int left = clusterX * clusterSize;
+		int top = clusterY * clusterSize;
+		int right = Math.min(left + clusterSize, width) - 1;
+		int bottom = Math.min(top + clusterSize, maze.getHeight()) - 1;
+		int first = nodeCount;
+
+		if (clusterX > 0)
+			addEntrances(first, maze.getIndex(left, top), width, bottom - top + 1, -1);
+		if (clusterX < clustersX - 1)
+			addEntrances(first, maze.getIndex(right, top), width, bottom - top + 1, 1);
+		if (clusterY > 0)
+			addEntrances(first, maze.getIndex(left, top), 1, right - left + 1, -width);
+		if (clusterY < clustersY - 1)
+			addEntrances(first, maze.getIndex(left, bottom), 1, right - left + 1, width);
+
+		int count = nodeCount - first;
+		int[] distances = new int[count * count];
+
+		for (int from = 0; from < count; from++) {
+			searchCluster(nodeCells[first + from]);
+			for (int to = 0; to < count; to++) {
+				distances[from * count + to] = localDistance[localPosition(nodeCells[first + to])];
+			}
+		}
+
+		liveNodes += count - clusterNodeCount[cluster];
+		clusterNodeStart[cluster] = first;
+		clusterNodeCount[cluster] = count;
+		clusterDistances[cluster] = distances;
+		clustersBuilt++;
+	}
+
+	/**
+	 * Move ranges of all clusters to the beginning of the node table, so the
+	 * garbage left by rebuilt clusters is dropped
+	 */
+	private void compact() {
+		int[] compacted = new int[Math.max(liveNodes * 2, 16)];
+		int count = 0;
+
+		for (int cluster = 0; cluster < clusterNodeStart.length; cluster++) {
+			System.arraycopy(nodeCells, clusterNodeStart[cluster], compacted, count,
+					clusterNodeCount[cluster]);
+			clusterNodeStart[cluster] = count;
+			count += clusterNodeCount[cluster];
+		}
+		nodeCells = compacted;
+		nodeCount = count;
+	}
+
+	/**
+	 * Distances from the cell to all nodes of its cluster, moving only inside
+	 * the cluster
+	 * 
+	 * @param cell
+	 * @return distance for each node of the cluster (in the order of the
+	 *         cluster nodes), UNREACHABLE when there is no way inside cluster
+	 */
+	public int[] distancesToNodes(int cell) {
+		int cluster = getCluster(cell);
+		int first = clusterNodeStart[cluster];
+		int[] distances = new int[clusterNodeCount[cluster]];
+
+		searchCluster(cell);
+		for (int node = 0; node < distances.length; node++) {
+			distances[node] = localDistance[localPosition(nodeCells[first + node])];
+		}
+		return distances;
+	}
+
+	/**
+	 * Node of the cell
+	 * 
+	 * @param cell
+	 * @return node id, or -1 when the cell is not an entrance
+	 */
+	public int findNode(int cell) {
+		int cluster = getCluster(cell);
+		int first = clusterNodeStart[cluster];
+
+		for (int node = first; node < first + clusterNodeCount[cluster]; node++) {
+			if (nodeCells[node] == cell) return node;
+		}
+		return -1;
+	}
+
+	/**
+	 * @param cell
+	 * @return cluster which contains the cell
+	 */
+	public int getCluster(int cell) {
+		int width = maze.getWidth();
+
+		return (cell / width / clusterSize) * clustersX + (cell % width) / clusterSize;
+	}
+
+	/**
+	 * @param cluster
+	 * @return number of nodes of the cluster
+	 */
+	public int getClusterNodes(int cluster) {
+		return clusterNodeCount[cluster];
+	}
+
+	/**
+	 * @param cluster
+	 * @return id of the first node of the cluster
+	 */
+	public int getClusterNodesStart(int cluster) {
+		return clusterNodeStart[cluster];
+	}
+
+	/**
+	 * @return how many times any cluster was built, full build included
+	 */
+	public int getClustersBuilt() {
+		return clustersBuilt;
+	}
+
+	/**
+	 * Distance between two nodes of the cluster, moving only inside the cluster
+	 * 
+	 * @param cluster
+	 * @param from
+	 *          position of the node in the cluster
+	 * @param to
+	 *          position of the node in the cluster
+	 * @return distance or UNREACHABLE
+	 */
+	public int getDistance(int cluster, int from, int to) {
+		return clusterDistances[cluster][from * clusterNodeCount[cluster] + to];
+	}
+
+	/**
+	 * @param node
+	 * @return cell of the node
+	 */
+	public int getNodeCell(int node) {
+		return nodeCells[node];
+	}
+
+	/**
+	 * @return highest node id + 1 (including garbage of rebuilt clusters)
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Position of the cell inside its cluster
+	 * 
+	 * @param cell
+	 * @return
+	 */
+	private int localPosition(int cell) {
+		int width = maze.getWidth();
+
+		return (cell / width % clusterSize) * clusterSize + cell % width % clusterSize;
+	}
+
+	/**
+	 * Shortest path between two cells of the same cluster, moving only inside
+	 * the cluster
+	 * 
+	 * @param from
+	 * @param to
+	 * @return cells from 'to' back to 'from' (both included), or null when
+	 *         there is no way inside the cluster
+	 */
+	public int[] pathInCluster(int from, int to) {
+		searchCluster(from);
+		if (localDistance[localPosition(to)] == UNREACHABLE) return null;
+
+		// walk back by decreasing distance
+		int[] path = new int[localDistance[localPosition(to)] + 1];
+		int cluster = getCluster(from);
+		path[0] = to;
+
+		for (int step = 1; step < path.length; step++) {
+			int cell = path[step - 1];
+			for (int offset : neighbourOffsets) {
+				int next = cell + offset;
+				if (maze.isWalkable(next) && getCluster(next) == cluster
+						&& localDistance[localPosition(next)] == path.length - 1 - step) {
+					path[step] = next;
+					break;
+				}
+			}
+		}
+		return path;
+	}
+
+	/**
+	 * Update the graph to the current version of the maze, only clusters with
+	 * changed cells are built again. When the journal doesn't reach back to the
+	 * last refresh (or the maze was loaded again), everything is built again.
+	 */
+	public void refresh() {
+		if (version == maze.getVersion()) return;
+
+		int[] changedCells = maze.getChangedCells(version);
+		if (changedCells == null) {
+			buildAll();
+			return;
+		}
+
+		int width = maze.getWidth();
+		BitSet dirty = new BitSet();
+		for (int cell : changedCells) {
+			int x = cell % width;
+			int y = cell / width;
+
+			// cell on the border changes entrances of the neighbour cluster too
+			dirty.set(getCluster(cell));
+			if (x > 0) dirty.set(getCluster(cell - 1));
+			if (x < width - 1) dirty.set(getCluster(cell + 1));
+			if (y > 0) dirty.set(getCluster(cell - width));
+			if (y < maze.getHeight() - 1) dirty.set(getCluster(cell + width));
+		}
+		dirty.stream().forEach(this::buildCluster);
+
+		if (nodeCount > liveNodes * 2 + 1024) compact();
+		version = maze.getVersion();
+	}
+
+	/**
+	 * BFS from the cell limited to its cluster, distances are left in
+	 * localDistance
+	 * 
+	 * @param cell
+	 */
+	private void searchCluster(int cell) {
+		int cluster = getCluster(cell);
+		int head = 0;
+		int tail = 0;
+
+		Arrays.fill(localDistance, UNREACHABLE);
+		localDistance[localPosition(cell)] = 0;
+		localQueue[tail++] = cell;
+
+		while (head < tail) {
+			int current = localQueue[head++];
+			int distance = localDistance[localPosition(current)] + 1;
+
+			for (int offset : neighbourOffsets) {
+				int next = current + offset;
+				if (!maze.isWalkable(next) || getCluster(next) != cluster) continue;
+
+				int position = localPosition(next);
+				if (localDistance[position] == UNREACHABLE) {
+					localDistance[position] = distance;
+					localQueue[tail++] = next;
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,120 @@
+package eu.antonkrug;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Manhatan distance from every cell to the closest of many targets, so the
+ * heurestic of A* is one array lookup instead of a loop over all destinations.
+ * Walls are ignored (same as manhatan distance), so the field depends only on
+ * the size of the maze and the targets.
+ * 
+ * Computed by two passes over the grid: first from top left corner taking the
+ * left and upper neighbour, then from bottom right corner taking the right and
+ * lower neighbour. For manhatan distance this is exact. Distances are stored
+ * as 16 bit values, bigger ones are saturated which keeps the heurestic
+ * admissible.
+ * 
+ * Building it costs two passes over the whole maze, so it pays off only when
+ * there are many targets, see MIN_TARGETS.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeDistanceTransform {
+
+	// with less targets just looping over them is cheaper
+	public final static int		MIN_TARGETS	= 16;
+
+	private final static char	SATURATED		= 0xFFFF;
+
+	private final char[]			distances;
+	private final int					width;
+
+	/**
+	 * Compute distances for the grid of given size
+	 * 
+	 * @param width
+	 * @param height
+	 * @param targets
+	 *          cell indexes (y * width + x) of the targets
+	 */
+	public MazeDistanceTransform(int width, int height, int[] targets) {
+		this.width = width;
+		this.distances = new char[width * height];
+
+		Arrays.fill(distances, SATURATED);
+		for (int target : targets) {
+			distances[target] = 0;
+		}
+
+		// from top left, distance through left and upper neighbour
+		for (int y = 0; y < height; y++) {
+			int row = y * width;
+			for (int x = 0; x < width; x++) {
+				int index = row + x;
+				if (x > 0) relax(index, index - 1);
+				if (y > 0) relax(index, index - width);
+			}
+		}
+
+		// from bottom right, distance through right and lower neighbour
+		for (int y = height - 1; y >= 0; y--) {
+			int row = y * width;
+			for (int x = width - 1; x >= 0; x--) {
+				int index = row + x;
+				if (x < width - 1) relax(index, index + 1);
+				if (y < height - 1) relax(index, index + width);
+			}
+		}
+	}
+
+	/**
+	 * Compute distances for all cells of the maze to given points
+	 * 
+	 * @param maze
+	 * @param targets
+	 */
+	public MazeDistanceTransform(Maze maze, List<Point> targets) {
+		this(maze.getWidth(), maze.getHeight(), targets.stream().mapToInt(maze::getIndex).toArray());
+	}
+
+	/**
+	 * @param index
+	 * @return manhatan distance to the closest target
+	 */
+	public int getDistance(int index) {
+		return distances[index];
+	}
+
+	/**
+	 * @param x
+	 * @param y
+	 * @return manhatan distance to the closest target
+	 */
+	public int getDistance(int x, int y) {
+		return distances[y * width + x];
+	}
+
+	/**
+	 * Take the distance through the neighbour when it's shorter
+	 * 
+	 * @param index
+	 * @param neighbour
+	 */
+	private void relax(int index, int neighbour) {
+		int distance = distances[neighbour] + 1;
+
+		if (distance < distances[index]) distances[index] = (char) distance;
+	}
+
+}
@@ -0,0 +1,150 @@
+package eu.antonkrug;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Distance field (flow field) towards a set of destinations. One BFS is run
+ * from all destinations at once, for each cell the distance to the closest
+ * destination and the direction of the next step is stored. Then the path
+ * from any cell is just following the directions, so many agents going to the
+ * same destinations don't have to search the maze each one again.
+ * 
+ * Field is not updated when the maze changes, use Maze.getFlowField() to get
+ * field for the current version of the maze.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeFlowField {
+
+	// direction of destinations and unreachable cells
+	public final static byte	NO_DIRECTION	= -1;
+	public final static int		UNREACHABLE		= -1;
+
+	private final BitSet			destinations;
+	// index to the neighbour offsets of the maze
+	private final byte[]			direction;
+	private final int[]				distance;
+	private final Maze				maze;
+	private final int[]				neighbourOffsets;
+
+	/**
+	 * Run the BFS from all given destinations
+	 * 
+	 * @param maze
+	 * @param destinations
+	 *          cell indexes of the destinations
+	 */
+	public MazeFlowField(Maze maze, BitSet destinations) {
+		this.maze = maze;
+		this.destinations = (BitSet) destinations.clone();
+		this.neighbourOffsets = maze.getNeighbourOffsets();
+
+		int size = maze.getSize();
+		this.distance = new int[size];
+		this.direction = new byte[size];
+		Arrays.fill(distance, UNREACHABLE);
+		Arrays.fill(direction, NO_DIRECTION);
+
+		int[] queue = new int[size];
+		int head = 0;
+		int tail = 0;
+
+		for (int index = this.destinations.nextSetBit(0); index >= 0; index = this.destinations
+				.nextSetBit(index + 1)) {
+			if (!maze.isWalkable(index)) continue;
+			distance[index] = 0;
+			queue[tail++] = index;
+		}
+
+		while (head < tail) {
+			int current = queue[head++];
+
+			for (int offset = 0; offset < neighbourOffsets.length; offset++) {
+				int next = current - neighbourOffsets[offset];
+				if (distance[next] == UNREACHABLE && maze.isWalkable(next)) {
+					distance[next] = distance[current] + 1;
+					// from the next cell the step back to the current is this offset
+					direction[next] = (byte) offset;
+					queue[tail++] = next;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return copy of the destinations the field leads to
+	 */
+	public BitSet getDestinations() {
+		return (BitSet) destinations.clone();
+	}
+
+	/**
+	 * @param index
+	 * @return steps to the closest destination, or UNREACHABLE
+	 */
+	public int getDistance(int index) {
+		return distance[index];
+	}
+
+	/**
+	 * @param index
+	 * @return the next cell towards the closest destination, or -1 when the cell
+	 *         is a destination or it can't reach any
+	 */
+	public int getNext(int index) {
+		byte offset = direction[index];
+
+		return offset == NO_DIRECTION ? -1 : index + neighbourOffsets[offset];
+	}
+
+	/**
+	 * Path from the given cell to the closest destination, just following the
+	 * directions
+	 * 
+	 * @param index
+	 * @return cells from the given one to the destination (both included), or
+	 *         null when no destination can be reached
+	 */
+	public int[] pathFrom(int index) {
+		if (distance[index] == UNREACHABLE) return null;
+
+		int[] path = new int[distance[index] + 1];
+		path[0] = index;
+		for (int step = 1; step < path.length; step++) {
+			path[step] = getNext(path[step - 1]);
+		}
+		return path;
+	}
+
+	/**
+	 * Adapter for the Point based callers
+	 * 
+	 * @param origin
+	 * @return points from the origin to the destination, or null when no
+	 *         destination can be reached
+	 */
+	public List<Point> pathFrom(Point origin) {
+		int[] path = pathFrom(maze.getIndex(origin));
+		if (path == null) return null;
+
+		List<Point> points = new LinkedList<>();
+		for (int index : path) {
+			points.add(maze.getPoint(index));
+		}
+		return points;
+	}
+
+}
@@ -0,0 +1,310 @@
+package eu.antonkrug;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Maze contracted to a weighted graph. Nodes are the walkable cells which are
+ * not plain corridor: junctions, dead ends, starts and finishes (every cell
+ * which doesn't have exactly two walkable neighbours, plus all starts and
+ * finishes). Each corridor between two nodes is one edge, its weight is the
+ * number of steps through the corridor.
+ * 
+ * Edges are stored in compressed arrays, edges of node N are from
+ * getEdgesStart(N) to getEdgesStart(N + 1) - 1. Corridor cells are not
+ * stored, the edge knows only its first cell and the corridor is walked again
+ * when the cells are needed for the path.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeGraph {
+
+	private int[]				edgeFirstCell;
+	private int					edges;
+	private int[]				edgeSource;
+	private int[]				edgesStart;
+	private int[]				edgeTarget;
+	private int[]				edgeWeight;
+	private final Maze	maze;
+	private int[]				neighbourOffsets;
+	private int[]				nodeCells;
+	// node of each cell, -1 for corridors and walls
+	private int[]				nodeOf;
+	private int					nodes;
+
+	/**
+	 * Build the graph from the current state of the maze, it's not updated when
+	 * the maze changes.
+	 * 
+	 * @param maze
+	 */
+	public MazeGraph(Maze maze) {
+		this.maze = maze;
+		this.neighbourOffsets = maze.getNeighbourOffsets();
+
+		findNodes();
+		findEdges();
+	}
+
+	/**
+	 * Add edge from the node, growing the arrays when needed
+	 * 
+	 * @param source
+	 * @param target
+	 * @param weight
+	 * @param firstCell
+	 */
+	private void addEdge(int source, int target, int weight, int firstCell) {
+		if (edges == edgeTarget.length) {
+			edgeSource = Arrays.copyOf(edgeSource, edges * 2);
+			edgeTarget = Arrays.copyOf(edgeTarget, edges * 2);
+			edgeWeight = Arrays.copyOf(edgeWeight, edges * 2);
+			edgeFirstCell = Arrays.copyOf(edgeFirstCell, edges * 2);
+		}
+		edgeSource[edges] = source;
+		edgeTarget[edges] = target;
+		edgeWeight[edges] = weight;
+		edgeFirstCell[edges] = firstCell;
+		edges++;
+	}
+
+	/**
+	 * Make the cell a node
+	 * 
+	 * @param index
+	 */
+	private void addNode(int index) {
+		if (nodes == nodeCells.length) nodeCells = Arrays.copyOf(nodeCells, nodes * 2);
+
+		nodeOf[index] = nodes;
+		nodeCells[nodes] = index;
+		nodes++;
+	}
+
+	/**
+	 * Next cell of the corridor, the only walkable neighbour which is not the
+	 * previous cell
+	 * 
+	 * @param previous
+	 * @param current
+	 * @return
+	 */
+	private int corridorNext(int previous, int current) {
+		for (int offset : neighbourOffsets) {
+			int next = current + offset;
+			if (next != previous && maze.isWalkable(next)) return next;
+		}
+		return -1;
+	}
+
+	/**
+	 * Number of walkable neighbours of the cell
+	 * 
+	 * @param index
+	 * @return
+	 */
+	private int degree(int index) {
+		int degree = 0;
+		for (int offset : neighbourOffsets) {
+			if (maze.isWalkable(index + offset)) degree++;
+		}
+		return degree;
+	}
+
+	/**
+	 * Walk all corridors leaving each node, corridor cells have only one way
+	 * forward so each corridor is walked once from each of its ends. Corridors
+	 * which lead back to the same node can't be part of the shortest path and
+	 * are skipped.
+	 */
+	private void findEdges() {
+		edgesStart = new int[nodes + 1];
+		edgeSource = new int[Math.max(nodes, 1) * 2];
+		edgeTarget = new int[edgeSource.length];
+		edgeWeight = new int[edgeSource.length];
+		edgeFirstCell = new int[edgeSource.length];
+		edges = 0;
+
+		for (int node = 0; node < nodes; node++) {
+			edgesStart[node] = edges;
+			int cell = nodeCells[node];
+
+			for (int offset : neighbourOffsets) {
+				int current = cell + offset;
+				if (!maze.isWalkable(current)) continue;
+
+				int previous = cell;
+				int weight = 1;
+				while (nodeOf[current] < 0) {
+					int next = corridorNext(previous, current);
+					previous = current;
+					current = next;
+					weight++;
+				}
+
+				if (nodeOf[current] != node) addEdge(node, nodeOf[current], weight, cell + offset);
+			}
+		}
+		edgesStart[nodes] = edges;
+	}
+
+	/**
+	 * Every walkable cell which is not plain corridor, and all starts and
+	 * finishes, becomes a node
+	 */
+	private void findNodes() {
+		int size = maze.getSize();
+		nodeOf = new int[size];
+		Arrays.fill(nodeOf, -1);
+		nodeCells = new int[1024];
+		nodes = 0;
+
+		for (int index = 0; index < size; index++) {
+			if (maze.isWalkable(index) && degree(index) != 2) addNode(index);
+		}
+
+		for (Maze.Block block : new Maze.Block[] { Maze.Block.START, Maze.Block.FINISH }) {
+			for (Point point : maze.getAllBlock(block)) {
+				int index = maze.getIndex(point);
+				if (nodeOf[index] < 0) addNode(index);
+			}
+		}
+	}
+
+	/**
+	 * @param node
+	 * @return cell index of the node
+	 */
+	public int getCell(int node) {
+		return nodeCells[node];
+	}
+
+	/**
+	 * Walk the corridor from its cell through the given neighbour, till a node
+	 * or one of the stop cells is reached
+	 * 
+	 * @param cell
+	 *          cell of the corridor (or a node)
+	 * @param first
+	 *          walkable neighbour of the cell where the walk goes
+	 * @param stops
+	 *          other cells where the walk ends
+	 * @return cells from the first one up to and including the node or the stop
+	 *         cell, or null when the corridor is a loop leading back to the cell
+	 */
+	public int[] getCorridorCells(int cell, int first, BitSet stops) {
+		int[] cells = new int[16];
+		int length = 0;
+		int previous = cell;
+		int current = first;
+
+		while (true) {
+			if (current == cell) return null;
+
+			if (length == cells.length) cells = Arrays.copyOf(cells, length * 2);
+			cells[length++] = current;
+			if (nodeOf[current] >= 0 || stops.get(current)) break;
+
+			int next = corridorNext(previous, current);
+			previous = current;
+			current = next;
+		}
+		return Arrays.copyOf(cells, length);
+	}
+
+	/**
+	 * Cells of the corridor of the edge, from the first cell behind the source
+	 * node up to and including the target node
+	 * 
+	 * @param edge
+	 * @return
+	 */
+	public int[] getEdgeCells(int edge) {
+		int[] cells = new int[edgeWeight[edge]];
+		int previous = nodeCells[edgeSource[edge]];
+		int current = edgeFirstCell[edge];
+
+		for (int step = 0; step < cells.length; step++) {
+			cells[step] = current;
+
+			int next = corridorNext(previous, current);
+			previous = current;
+			current = next;
+		}
+		return cells;
+	}
+
+	/**
+	 * @return number of edges, each corridor is counted once from each end
+	 */
+	public int getEdges() {
+		return edges;
+	}
+
+	/**
+	 * @param node
+	 * @return index of the first edge of the node
+	 */
+	public int getEdgesStart(int node) {
+		return edgesStart[node];
+	}
+
+	/**
+	 * @param edge
+	 * @return node where the edge begins
+	 */
+	public int getEdgeSource(int edge) {
+		return edgeSource[edge];
+	}
+
+	/**
+	 * @param edge
+	 * @return node where the edge ends
+	 */
+	public int getEdgeTarget(int edge) {
+		return edgeTarget[edge];
+	}
+
+	/**
+	 * @param edge
+	 * @return steps through the corridor
+	 */
+	public int getEdgeWeight(int edge) {
+		return edgeWeight[edge];
+	}
+
+	/**
+	 * @param index
+	 * @return node of the cell, or -1 when the cell is a corridor or wall
+	 */
+	public int getNode(int index) {
+		return nodeOf[index];
+	}
+
+	/**
+	 * @param index
+	 * @return true when the cell is walkable in the maze the graph was built
+	 *         from
+	 */
+	public boolean isWalkable(int index) {
+		return maze.isWalkable(index);
+	}
+
+	/**
+	 * @return number of nodes
+	 */
+	public int getNodes() {
+		return nodes;
+	}
+
+}
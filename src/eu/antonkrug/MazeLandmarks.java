@@ -0,0 +1,360 @@
+package eu.antonkrug;
+
+import java.awt.Point;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Landmarks for ALT heurestic (A*, landmarks, triangle inequality). For few
+ * landmark cells the BFS distance to every cell is stored, then for any two
+ * cells A and B the distance between them is at least |d(L, A) - d(L, B)| for
+ * each landmark L. In winding mazes this is much closer to the real distance
+ * than manhatan distance.
+ * 
+ * Landmarks are picked by farthest point: the first one is the farthest cell
+ * from the first start, each next one is the cell farthest from all already
+ * picked. Distances are stored as 16 bit values, bigger distances are
+ * saturated which keeps the bound admissible and consistent, just weaker.
+ * 
+ * Landmarks remember the fingerprint of the maze they were computed for, so
+ * saved landmarks are not loaded for other maze of the same size.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1.1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeLandmarks {
+
+	public static final int		DEFAULT_LANDMARKS	= 8;
+
+	// "MAZL" and version of the file format
+	private final static int	FILE_MAGIC				= 0x4D415A4C;
+	private final static short	FILE_VERSION			= 2;
+	// magic, version, width, height, count and fingerprint
+	private final static int		HEADER_BYTES			= 26;
+	// whole file is read into one buffer
+	private final static long		MAX_FILE_BYTES		= Integer.MAX_VALUE;
+
+	private final static char	SATURATED					= 0xFFFE;
+	private final static char	UNREACHABLE				= 0xFFFF;
+
+	private final int[]				cells;
+	private final char[][]		distances;
+	private final long				fingerprint;
+	private final int					height;
+	private final int					width;
+
+	/**
+	 * Pick landmarks in the maze and compute their distance arrays.
+	 * 
+	 * @param maze
+	 * @param count
+	 *          number of landmarks, less are picked if the maze has not enough
+	 *          reachable cells
+	 */
+	public MazeLandmarks(Maze maze, int count) {
+		this.width = maze.getWidth();
+		this.height = maze.getHeight();
+		this.fingerprint = maze.getFingerprint();
+
+		int size = maze.getSize();
+		int[] offsets = maze.getNeighbourOffsets();
+		int[] queue = new int[size];
+		// distance to the closest landmark picked so far
+		int[] closest = new int[size];
+
+		List<Point> starts = maze.getAllBlock(Maze.Block.START);
+		int seed = starts.isEmpty() ? firstWalkable(maze) : maze.getIndex(starts.get(0));
+
+		int[] picked = new int[count];
+		char[][] arrays = new char[count][];
+		int landmarks = 0;
+
+		if (seed >= 0) {
+			// the array is reused by the first landmark
+			char[] fromSeed = new char[size];
+			int next = search(maze, offsets, queue, seed, fromSeed);
+			Arrays.fill(closest, Integer.MAX_VALUE);
+
+			while (landmarks < count && next >= 0) {
+				picked[landmarks] = next;
+				arrays[landmarks] = landmarks == 0 ? fromSeed : new char[size];
+				search(maze, offsets, queue, next, arrays[landmarks]);
+
+				// next landmark is the reachable cell farthest from all picked ones
+				next = -1;
+				int farthest = 0;
+				for (int index = 0; index < size; index++) {
+					char distance = arrays[landmarks][index];
+					if (distance == UNREACHABLE) continue;
+
+					if (distance < closest[index]) closest[index] = distance;
+					if (closest[index] > farthest) {
+						farthest = closest[index];
+						next = index;
+					}
+				}
+				landmarks++;
+			}
+		}
+
+		this.cells = Arrays.copyOf(picked, landmarks);
+		this.distances = Arrays.copyOf(arrays, landmarks);
+	}
+
+	/**
+	 * Used by load()
+	 * 
+	 * @param width
+	 * @param height
+	 * @param fingerprint
+	 * @param cells
+	 * @param distances
+	 */
+	private MazeLandmarks(int width, int height, long fingerprint, int[] cells, char[][] distances) {
+		this.width = width;
+		this.height = height;
+		this.fingerprint = fingerprint;
+		this.cells = cells;
+		this.distances = distances;
+	}
+
+	/**
+	 * @param maze
+	 * @return first walkable cell or -1
+	 */
+	private static int firstWalkable(Maze maze) {
+		for (int index = 0; index < maze.getSize(); index++) {
+			if (maze.isWalkable(index)) return index;
+		}
+		return -1;
+	}
+
+	/**
+	 * BFS from the cell, distances are stored in given array
+	 * 
+	 * @param maze
+	 * @param offsets
+	 * @param queue
+	 *          scratch space as big as the maze
+	 * @param from
+	 * @param distances
+	 * @return the last reached cell (one of the farthest)
+	 */
+	private static int search(Maze maze, int[] offsets, int[] queue, int from, char[] distances) {
+		int head = 0;
+		int tail = 0;
+
+		Arrays.fill(distances, UNREACHABLE);
+		distances[from] = 0;
+		queue[tail++] = from;
+
+		while (head < tail) {
+			int current = queue[head++];
+			char distance = (char) Math.min(distances[current] + 1, SATURATED);
+
+			for (int offset : offsets) {
+				int next = current + offset;
+				if (distances[next] == UNREACHABLE && maze.isWalkable(next)) {
+					distances[next] = distance;
+					queue[tail++] = next;
+				}
+			}
+		}
+		return queue[tail - 1];
+	}
+
+	/**
+	 * @return cells of the landmarks
+	 */
+	public int[] getCells() {
+		return cells.clone();
+	}
+
+	/**
+	 * @param landmark
+	 * @param index
+	 * @return distance from the landmark to the cell, -1 when it's unreachable
+	 */
+	public int getDistance(int landmark, int index) {
+		char distance = distances[landmark][index];
+
+		return distance == UNREACHABLE ? -1 : distance;
+	}
+
+	/**
+	 * Lower bound of the distance from the cell to the closest of the targets
+	 * 
+	 * @param index
+	 * @param targets
+	 * @return
+	 */
+	public int lowerBound(int index, int[] targets) {
+		int smallest = Integer.MAX_VALUE;
+
+		for (int target : targets) {
+			int bound = 0;
+
+			for (char[] landmark : distances) {
+				char from = landmark[index];
+				char to = landmark[target];
+				// cells in other area than the landmark say nothing
+				if (from == UNREACHABLE || to == UNREACHABLE) continue;
+
+				int difference = from > to ? from - to : to - from;
+				if (difference > bound) bound = difference;
+			}
+			if (bound < smallest) smallest = bound;
+		}
+		return smallest == Integer.MAX_VALUE ? 0 : smallest;
+	}
+
+	/**
+	 * Size of the file with given number of landmarks
+	 * 
+	 * @param count
+	 * @param size
+	 *          number of cells of the maze
+	 * @return
+	 */
+	private static long fileBytes(int count, long size) {
+		return HEADER_BYTES + count * 4L + count * size * 2;
+	}
+
+	/**
+	 * @return fingerprint of the maze the landmarks were computed for
+	 */
+	public long getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * @return height of the maze the landmarks were computed for
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * @return width of the maze the landmarks were computed for
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Load landmarks saved by save(), they have to be for the same maze
+	 * 
+	 * @param maze
+	 * @param fileName
+	 * @return
+	 * @throws Exception
+	 *           If the file is broken, too big or it was saved for other maze
+	 */
+	public static MazeLandmarks load(Maze maze, String fileName) throws Exception {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			while (header.hasRemaining()) {
+				if (channel.read(header) < 0) throw new Exception("Landmarks file ended too soon");
+			}
+			header.flip();
+
+			if (header.getInt() != FILE_MAGIC)
+				throw new Exception("File " + fileName + " is not a landmarks file");
+			if (header.getShort() != FILE_VERSION)
+				throw new Exception("Landmarks file version is not supported");
+
+			int width = header.getInt();
+			int height = header.getInt();
+			int count = header.getInt();
+			long fingerprint = header.getLong();
+			if (count < 0) throw new Exception("Landmarks file " + fileName + " is broken");
+			if (width != maze.getWidth() || height != maze.getHeight())
+				throw new Exception(String.format("Landmarks are for maze %dx%d, but the maze is %dx%d",
+						width, height, maze.getWidth(), maze.getHeight()));
+			if (fingerprint != maze.getFingerprint())
+				throw new Exception("Landmarks file " + fileName + " was saved for other maze");
+
+			int size = maze.getSize();
+			long bytes = fileBytes(count, size);
+			if (bytes > MAX_FILE_BYTES)
+				throw new Exception("Landmarks file " + fileName + " is too big to be loaded");
+			if (bytes != channel.size())
+				throw new Exception("Landmarks file " + fileName + " is broken");
+
+			ByteBuffer body = ByteBuffer.allocate((int) bytes - HEADER_BYTES);
+			while (body.hasRemaining()) {
+				if (channel.read(body) < 0) throw new Exception("Landmarks file ended too soon");
+			}
+			body.flip();
+
+			int[] cells = new int[count];
+			char[][] distances = new char[count][size];
+			for (int landmark = 0; landmark < count; landmark++) {
+				cells[landmark] = body.getInt();
+			}
+			CharBuffer chars = body.asCharBuffer();
+			for (int landmark = 0; landmark < count; landmark++) {
+				chars.get(distances[landmark]);
+			}
+			return new MazeLandmarks(width, height, fingerprint, cells, distances);
+		}
+	}
+
+	/**
+	 * Save landmarks to a binary file: header with dimensions, number of
+	 * landmarks and fingerprint of the maze, cells of the landmarks and then all
+	 * distance arrays (2 bytes per cell)
+	 * 
+	 * @param fileName
+	 * @throws Exception
+	 *           If the landmarks don't fit into one file buffer
+	 */
+	public void save(String fileName) throws Exception {
+		long bytes = fileBytes(cells.length, (long) width * height);
+		if (bytes > MAX_FILE_BYTES) throw new Exception("Landmarks are too big to be saved");
+
+		ByteBuffer buffer = ByteBuffer.allocate((int) bytes);
+		buffer.putInt(FILE_MAGIC);
+		buffer.putShort(FILE_VERSION);
+		buffer.putInt(width);
+		buffer.putInt(height);
+		buffer.putInt(cells.length);
+		buffer.putLong(fingerprint);
+		for (int cell : cells) {
+			buffer.putInt(cell);
+		}
+		for (char[] landmark : distances) {
+			buffer.asCharBuffer().put(landmark);
+			buffer.position(buffer.position() + landmark.length * 2);
+		}
+		buffer.flip();
+
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	/**
+	 * @return number of landmarks
+	 */
+	public int size() {
+		return cells.length;
+	}
+
+}
@@ -0,0 +1,297 @@
+package eu.antonkrug;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import eu.antonkrug.MazeSolver.Aproach;
+
+/**
+ * Cache of solved paths in front of MazeSolverFactory. Entries are keyed by
+ * the fingerprint of the maze (hash of its content), the aproach and the sets
+ * of starts and destinations, so equal mazes loaded into different objects
+ * share their entries.
+ * 
+ * Cache is bounded by estimated memory of its entries, the least recently
+ * used ones are evicted first. Invalidation is lazy: when a maze is changed,
+ * entries of its old content are dropped on the next query for that maze (when
+ * no other seen maze has that content), till then they only take memory and
+ * can be evicted. Entries of other mazes are kept. Stale entry is never
+ * returned, as the key has the fingerprint of the current content.
+ * 
+ * Cache can be shared by many threads. Lookups and inserts are done under the
+ * lock, but the solver runs outside of it, so one slow query doesn't block the
+ * others. Two threads missing the same key at once both solve it, the first
+ * path is kept. Maze must not be changed while its query is running.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1.1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazePathCache {
+
+	/**
+	 * Fingerprint, aproach and end points of one query
+	 */
+	private static class Key {
+
+		private final Aproach	aproach;
+		private final int[]		destinations;
+		private final long		fingerprint;
+		private final int			hash;
+		private final int[]		starts;
+
+		private Key(long fingerprint, Aproach aproach, int[] starts, int[] destinations) {
+			this.fingerprint = fingerprint;
+			this.aproach = aproach;
+			this.starts = starts;
+			this.destinations = destinations;
+			this.hash = Long.hashCode(fingerprint) * 31 * 31 * 31 + aproach.hashCode() * 31 * 31
+					+ Arrays.hashCode(starts) * 31 + Arrays.hashCode(destinations);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) return false;
+
+			Key key = (Key) other;
+			return fingerprint == key.fingerprint && aproach == key.aproach
+					&& Arrays.equals(starts, key.starts) && Arrays.equals(destinations, key.destinations);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+	}
+
+	/**
+	 * What was known about a maze when it was seen the last time
+	 */
+	private static class Seen {
+
+		private final int[]	destinations;
+		private final long	fingerprint;
+		private final int[]	starts;
+		private final long	version;
+
+		private Seen(Maze maze) {
+			this.version = maze.getVersion();
+			this.fingerprint = maze.getFingerprint();
+			this.starts = indicesOf(maze, Maze.Block.START);
+			this.destinations = indicesOf(maze, Maze.Block.FINISH);
+		}
+
+	}
+
+	// rough size of the key, entry and arrays headers in bytes
+	private final static int							ENTRY_BYTES	= 128;
+
+	// path of each query, empty array when there is no path
+	private final LinkedHashMap<Key, int[]>	entries;
+	private long													evictions;
+	private long													hits;
+	private long													invalidations;
+	private final long										maxWeight;
+	private long													misses;
+	// each maze when it was seen the last time, so unchanged maze isn't scanned
+	private final WeakHashMap<Maze, Seen>		seen;
+	private long													weight;
+
+	/**
+	 * @param maxWeight
+	 *          estimated memory in bytes which the cached paths can take
+	 */
+	public MazePathCache(long maxWeight) {
+		this.maxWeight = maxWeight;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true);
+		this.evictions = 0;
+		this.hits = 0;
+		this.invalidations = 0;
+		this.misses = 0;
+		this.seen = new WeakHashMap<>();
+		this.weight = 0;
+	}
+
+	/**
+	 * Forget all entries, counters are kept
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		seen.clear();
+		weight = 0;
+	}
+
+	/**
+	 * Drop entries of the old content of the maze
+	 * 
+	 * @param fingerprint
+	 */
+	private void invalidate(long fingerprint) {
+		Iterator<Map.Entry<Key, int[]>> iterator = entries.entrySet().iterator();
+
+		while (iterator.hasNext()) {
+			Map.Entry<Key, int[]> entry = iterator.next();
+			if (entry.getKey().fingerprint == fingerprint) {
+				weight -= weightOf(entry.getKey(), entry.getValue());
+				iterator.remove();
+				invalidations++;
+			}
+		}
+	}
+
+	/**
+	 * Path of the maze from its starts to its finishes, solved only when it's not
+	 * cached already
+	 * 
+	 * @param maze
+	 * @param aproach
+	 * @return cells of the path (as MazeSolver.backTracePathIndices() returns
+	 *         them), or null when there is no path
+	 * @throws Exception
+	 *           If the solver can't be created for the maze
+	 */
+	public int[] getPath(Maze maze, Aproach aproach) throws Exception {
+		Key key;
+
+		synchronized (this) {
+			Seen known = seen.get(maze);
+
+			if (known == null || known.version != maze.getVersion()) {
+				Seen previous = known;
+				known = new Seen(maze);
+				seen.put(maze, known);
+
+				if (previous != null && previous.fingerprint != known.fingerprint
+						&& !isSeen(previous.fingerprint)) invalidate(previous.fingerprint);
+			}
+
+			key = new Key(known.fingerprint, aproach, known.starts, known.destinations);
+
+			int[] path = entries.get(key);
+			if (path != null) {
+				hits++;
+				return path.length == 0 ? null : path.clone();
+			}
+			misses++;
+		}
+
+		MazeSolver solver = MazeSolverFactory.getSolver(maze, aproach);
+		solver.solvePath();
+		int[] path = solver.backTracePathIndices();
+		if (path == null) path = new int[0];
+
+		synchronized (this) {
+			// other thread could solve the same query meanwhile
+			if (!entries.containsKey(key)) {
+				entries.put(key, path);
+				weight += weightOf(key, path);
+				trim();
+			}
+		}
+
+		return path.length == 0 ? null : path.clone();
+	}
+
+	/**
+	 * @return number of entries dropped to keep the weight under the limit
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * @return number of queries answered from the cache
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return number of entries dropped because their maze was changed
+	 */
+	public synchronized long getInvalidations() {
+		return invalidations;
+	}
+
+	/**
+	 * @return number of queries which had to be solved
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return estimated memory of all entries in bytes
+	 */
+	public synchronized long getWeight() {
+		return weight;
+	}
+
+	/**
+	 * Sorted cell indexes of all blocks of given type
+	 * 
+	 * @param maze
+	 * @param block
+	 * @return
+	 */
+	private static int[] indicesOf(Maze maze, Maze.Block block) {
+		return maze.getAllBlock(block).stream().mapToInt(maze::getIndex).sorted().toArray();
+	}
+
+	/**
+	 * Check if other maze has still this content
+	 * 
+	 * @param fingerprint
+	 * @return
+	 */
+	private boolean isSeen(long fingerprint) {
+		for (Seen other : seen.values()) {
+			if (other.fingerprint == fingerprint) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return number of cached paths
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Evict least recently used entries till the weight is under the limit
+	 */
+	private void trim() {
+		Iterator<Map.Entry<Key, int[]>> iterator = entries.entrySet().iterator();
+
+		while (weight > maxWeight && iterator.hasNext()) {
+			Map.Entry<Key, int[]> entry = iterator.next();
+			weight -= weightOf(entry.getKey(), entry.getValue());
+			iterator.remove();
+			evictions++;
+		}
+	}
+
+	/**
+	 * Estimated memory of one entry in bytes
+	 * 
+	 * @param key
+	 * @param path
+	 * @return
+	 */
+	private static long weightOf(Key key, int[] path) {
+		return ENTRY_BYTES + 4L * (path.length + key.starts.length + key.destinations.length);
+	}
+
+}
@@ -3,6 +3,7 @@ package eu.antonkrug;
 import java.awt.Point;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -11,7 +12,7 @@ import java.util.stream.Stream;
  * 
  * @author Anton Krug
  * @date 2015/02/22
- * @version 1.2
+ * @version 1.3
  * 
  */
 public interface MazeSolver {
@@ -21,6 +22,7 @@ public interface MazeSolver {
 	 */
 	public enum Aproach {
 		BFS_QUEUE_MINE, BFS_QUEUE_JDK, DFS_STACK_MINE, DFS_STACK_JDK, ASTAR_CONCURENT_HASHMAP, ASTAR_HASHMAP,
+		ASTAR_BINARY_HEAP, ASTAR_BUCKET_QUEUE, JPS, BFS_BIDIRECTIONAL, ASTAR_BIDIRECTIONAL, IDA_STAR, SMA_STAR, DSTAR_LITE, JUNCTION_GRAPH, HPA_STAR, ASTAR_LANDMARKS,
 		// KOLOBOKE,
 		// FASTUTIL_HASHMAP
 		;
@@ -70,6 +72,13 @@ public interface MazeSolver {
 	 */
 	public List<Point> backTracePath();
 
+	/**
+	 * Returns final solved path as cell indexes (y * width + x)
+	 * 
+	 * @return
+	 */
+	public int[] backTracePathIndices();
+
 	/**
 	 * Returns current final path by partially solved search
 	 * 
@@ -77,6 +86,12 @@ public interface MazeSolver {
 	 */
 	public List<Point> backTracePathPartially();
 
+	/**
+	 * Ask the solver to stop, solvePath() will return -1 after the current step.
+	 * Can be called from another thread.
+	 */
+	public void cancel();
+
 	/**
 	 * Will return Approach of this implementation
 	 * 
@@ -91,6 +106,13 @@ public interface MazeSolver {
 	 */
 	public Point getCurrentStep();
 
+	/**
+	 * Gets the current step position inside the solver as cell index
+	 * 
+	 * @return the currentStep or -1 if the solver didn't started
+	 */
+	public int getCurrentStepIndex();
+
 	/**
 	 * Returns all given destinations
 	 * 
@@ -105,6 +127,13 @@ public interface MazeSolver {
 	 */
 	public Stream<Point> getVisit();
 
+	/**
+	 * Returns open list as cell indexes
+	 * 
+	 * @return the visit
+	 */
+	public IntStream getVisitIndices();
+
 	/**
 	 * Returns open list size
 	 * 
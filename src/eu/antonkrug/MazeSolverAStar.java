@@ -1,6 +1,7 @@
 package eu.antonkrug;
 
 import java.awt.Point;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
@@ -32,6 +33,9 @@ import java.util.Map.Entry;
  */
 public class MazeSolverAStar extends MazeSolverBase {
 
+	// distances to the destinations when there are many, shared through the
+	// maze, null till needed
+	private MazeDistanceTransform	destinationDistances;
 	private Map<Point, AStarNode>	visit;
 	private Map<Point, Point>				visitedAlready;
 
@@ -76,7 +80,8 @@ public class MazeSolverAStar extends MazeSolverBase {
 
 	/**
 	 * Will add starting position into maze, a maze can contain multiple starting
-	 * positions. And position which will gain the shortest path will choosen.
+	 * positions. All of them are put into open list with G=0, so one search
+	 * finds the shortest path from any of them.
 	 * 
 	 * @param origin
 	 * @throws Exception
@@ -84,8 +89,75 @@ public class MazeSolverAStar extends MazeSolverBase {
 	 */
 	@Override
 	public void addStartPosition(Point origin) throws Exception {
-		visit.put(origin, new AStarNode(null, 0, origin, destinations));
-		this.origin = origin;
+		visit.put(origin, createNode(null, 0, origin));
+		addOrigin(origin);
+	}
+
+	/**
+	 * Will add one or more destinations to maze
+	 * 
+	 * @param destination
+	 */
+	@Override
+	public void addDestinationPosition(Point destination) {
+		super.addDestinationPosition(destination);
+		destinationDistances = null;
+	}
+
+	/**
+	 * New node for the position, with few destinations the heurestic loops over
+	 * them, with many the distances precomputed for whole maze are taken from
+	 * the maze
+	 * 
+	 * @param parent
+	 * @param previousCost
+	 * @param current
+	 * @return
+	 * @throws Exception
+	 *           If there is no destination present
+	 */
+	private AStarNode createNode(Point parent, int previousCost, Point current) throws Exception {
+		if (destinations.size() < MazeDistanceTransform.MIN_TARGETS)
+			return new AStarNode(parent, previousCost, current, destinations);
+
+		if (destinationDistances == null) {
+			BitSet targets = new BitSet();
+			for (Point destination : destinations) {
+				targets.set(maze.getIndex(destination));
+			}
+			destinationDistances = maze.getDistanceTransform(targets);
+		}
+		return new AStarNode(parent, previousCost, current, destinationDistances);
+	}
+
+	/**
+	 * Best node from the open list
+	 * 
+	 * @return its position, or null when open list is empty
+	 */
+	private Point bestOfVisit() {
+		if (visit.size() == 0) return null;
+
+		Entry<Point, AStarNode> min;
+
+		// Depending if I'm allowed to see destination or not. The heurestics (H
+		// value) is knowledge of the destination and F=G+H so getting G value
+		// instead of F will ignore the heurestic part and will behave like it
+		// doesn't know the destination
+		if (destinationVisible) {
+
+			// get smallest node from not visited ones so we can use it as next move
+			min = Collections.min(visit.entrySet(),
+					(a, b) -> a.getValue().getF().compareTo(b.getValue().getF()));
+		} else {
+
+			// get smallest node from not visited ones so we can use it as next move
+			min = Collections.min(visit.entrySet(),
+					(a, b) -> a.getValue().getG().compareTo(b.getValue().getG()));
+		}
+
+		if (DEBUG) System.out.println(min.getKey());
+		return min.getKey();
 	}
 
 	/**
@@ -200,32 +272,7 @@ public class MazeSolverAStar extends MazeSolverBase {
 		// mark this point as visited
 		markNodeAsVisited(currentPosition);
 
-		Entry<Point, AStarNode> min = null;
-
-		// Check if we just didn't deleted the very last point in the visit list
-		if (visit.size() > 0) {
-
-			// Depending if I'm allowed to see destination or not. The heurestics (H
-			// value) is knowledge of the destination and F=G+H so getting G value
-			// instead of F will ignore the heurestic part and will behave like it
-			// doesn't know the destination
-			if (destinationVisible) {
-
-				// get smallest node from not visited ones so we can use it as next move
-				min = Collections.min(visit.entrySet(),
-						(a, b) -> a.getValue().getF().compareTo(b.getValue().getF()));
-			} else {
-
-				// get smallest node from not visited ones so we can use it as next move
-				min = Collections.min(visit.entrySet(),
-						(a, b) -> a.getValue().getG().compareTo(b.getValue().getG()));
-			}
-		} else {
-			return null;
-		}
-
-		if (DEBUG) System.out.println(min.getKey());
-		return min.getKey();
+		return bestOfVisit();
 	}
 
 	/**
@@ -245,8 +292,7 @@ public class MazeSolverAStar extends MazeSolverBase {
 		if (!maze.canWalkTo(testPoint)) return;
 
 		try {
-			AStarNode proposedNode = new AStarNode(currentPoint, visit.get(currentPoint).getG(),
-					testPoint, destinations);
+			AStarNode proposedNode = createNode(currentPoint, visit.get(currentPoint).getG(), testPoint);
 
 			// will replace if it's not found already or when it found a entry, but
 			// new node has better value. i.e. always put new/replace entry unless it
@@ -310,4 +356,25 @@ public class MazeSolverAStar extends MazeSolverBase {
 		}
 	}
 
+	/**
+	 * Set all destinations to given list.
+	 * 
+	 * @param destinations
+	 */
+	@Override
+	public void setDestinations(List<Point> destinations) {
+		super.setDestinations(destinations);
+		destinationDistances = null;
+	}
+
+	/**
+	 * All starts are in the open list, the search begins from the best of them
+	 * 
+	 * @return
+	 */
+	@Override
+	protected Point solveStepFirstPosition() {
+		return bestOfVisit();
+	}
+
 }
@@ -0,0 +1,223 @@
+package eu.antonkrug;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+import utils.BucketQueue;
+import utils.IndexedHeap;
+import utils.IndexedPriorityQueue;
+
+/**
+ * A* using primitive arrays indexed by cell (G values, parents and closed list
+ * as BitSet) and indexed priority queue as open list. Picking next node is
+ * O(log n) with binary heap, or O(1) with bucket queue (F values are small
+ * integers, because all moves cost 1 and manhatan distance is integer), instead
+ * of scanning whole open list. When better path to a node in open list is
+ * found its key is decreased in place.
+ * 
+ * With landmarks (ALT) the heurestic is the bigger of manhatan distance and
+ * the lower bound from the landmark distances of the maze.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1.1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeSolverAStarArray extends MazeSolverIndexBase {
+
+	// distance from start for each cell
+	private int[]									g;
+	// null when only manhatan distance is used
+	private MazeLandmarks					landmarks;
+	private int[]									parent;
+	private IndexedPriorityQueue	visit;
+	private BitSet								visitedAlready;
+	private int										visitedAlreadySize;
+
+	/**
+	 * Constructor to initialise fields.
+	 * 
+	 * @param maze
+	 *          Reqiress to be give already loaded maze
+	 */
+	public MazeSolverAStarArray(Maze maze, Aproach implementationAproach) throws Exception {
+		super(maze, implementationAproach);
+
+		int size = maze.getSize();
+
+		switch (implementationAproach) {
+			case ASTAR_BINARY_HEAP:
+				this.visit = new IndexedHeap(size);
+				break;
+
+			case ASTAR_BUCKET_QUEUE:
+				this.visit = new BucketQueue(size);
+				break;
+
+			case ASTAR_LANDMARKS:
+				this.visit = new IndexedHeap(size);
+				this.landmarks = maze.getLandmarks();
+				break;
+
+			default:
+				throw new Exception("Usuported aproach " + implementationAproach
+						+ " called with this solver");
+		}
+
+		this.g = new int[size];
+		this.parent = new int[size];
+		Arrays.fill(g, Integer.MAX_VALUE);
+		Arrays.fill(parent, -1);
+
+		this.visitedAlready = new BitSet(size);
+		this.visitedAlreadySize = 0;
+
+		this.addStartingAndDestionationPositions();
+	}
+
+	/**
+	 * Will add starting position into maze, all starting positions are put into
+	 * open list with cost 0, so the one which gain the shortest path will win.
+	 * 
+	 * @param origin
+	 * @throws Exception
+	 *           If there is no destination present it will throw exception
+	 */
+	@Override
+	public void addStartPosition(Point origin) throws Exception {
+		if (destinations.size() == 0)
+			throw new Exception("Before adding starts you have to set at least one destination!");
+
+		super.addStartPosition(origin);
+
+		int start = maze.getIndex(origin);
+		g[start] = 0;
+		parent[start] = -1;
+		visit.push(start, heurestic(start), 0);
+	}
+
+	/**
+	 * Will begin at the given cell and step back till starting point is reached
+	 * 
+	 * @param index
+	 * @return
+	 */
+	@Override
+	protected int[] backTraceFromIndex(int index) {
+		IntStream.Builder path = IntStream.builder();
+
+		while (index >= 0) {
+			path.add(index);
+			index = parent[index];
+		}
+		return path.build().toArray();
+	}
+
+	/**
+	 * Closes the current cell (top of the open list), relaxes all its neighbours and
+	 * returns the best next step.
+	 * 
+	 * @param current
+	 * @return
+	 */
+	@Override
+	protected int doOneStep(int current) {
+		markNodeAsVisited(current);
+
+		int cost = g[current] + 1;
+
+		for (int offset : neighbourOffsets) {
+			int next = current + offset;
+
+			if (visitedAlready.get(next) || !maze.isWalkable(next)) continue;
+
+			// insert new node or decrease key of the node when this path is better
+			if (cost < g[next]) {
+				g[next] = cost;
+				parent[next] = current;
+				// on equal F the deeper node is taken first
+				visit.push(next, cost + heurestic(next), cost);
+			}
+		}
+
+		if (DEBUG) System.out.println(visit.peek());
+		return visit.peek();
+	}
+
+	/**
+	 * Returns open list as cell indexes
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitIndices() {
+		return visit.stream();
+	}
+
+	/**
+	 * Returns closed list as cell indexes
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitedAlreadyIndices() {
+		return visitedAlready.stream();
+	}
+
+	@Override
+	public int getVisitedAlreadySize() {
+		return visitedAlreadySize;
+	}
+
+	@Override
+	public int getVisitSize() {
+		return visit.size();
+	}
+
+	/**
+	 * Manhatan distance, or landmark lower bound when it's bigger
+	 * 
+	 * @param index
+	 * @return
+	 */
+	@Override
+	protected int heurestic(int index) {
+		int manhatan = super.heurestic(index);
+		if (landmarks == null || !destinationVisible) return manhatan;
+
+		return Math.max(manhatan, landmarks.lowerBound(index, destinationIndices));
+	}
+
+	/**
+	 * Move a cell from open list to closed list
+	 * 
+	 * @param index
+	 */
+	@Override
+	protected void markNodeAsVisited(int index) {
+		if (visit.contains(index)) {
+			visit.remove(index);
+			visitedAlready.set(index);
+			visitedAlreadySize++;
+		}
+	}
+
+	/**
+	 * First step is the best node from the open list
+	 * 
+	 * @return
+	 */
+	@Override
+	protected int solveStepFirst() {
+		return visit.peek();
+	}
+
+}
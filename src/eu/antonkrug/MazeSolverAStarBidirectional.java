@@ -0,0 +1,332 @@
+package eu.antonkrug;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+import utils.IndexedHeap;
+
+/**
+ * Bidirectional A*, one search is going forward from all starts and the other
+ * one backward from all destinations, each has its own open list (indexed
+ * heap) and closed list.
+ * 
+ * Both searches use the same averaged potential, forward key is 2G + Hd - Hs
+ * and backward key is 2G + Hs - Hd (Hd is manhatan distance to the closest
+ * destination, Hs to the closest start, doubled so the keys stay integers).
+ * Because the potential is consistent for both sides, the search can stop as
+ * soon as sum of the smallest keys from both open lists is not smaller than the
+ * best path found so far (2 * length of it) and the path is optimal. The path
+ * is stitched from both parent arrays at the cell where the searches met.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeSolverAStarBidirectional extends MazeSolverIndexBase {
+
+	private static final int	FORWARD		= 0;
+	private static final int	BACKWARD	= 1;
+
+	// cell on the best path found so far, with doubled length of that path
+	private int								bestMeeting;
+	private int								bestMeetingCost;
+	// distance from the start of each side
+	private int[][]						g;
+	private int								meetingIndex;
+	private int[][]						parents;
+	private int								side;
+	// manhatan distances to the starts when there are many, null till needed
+	private MazeDistanceTransform	startDistances;
+	private IndexedHeap[]			visit;
+	private BitSet[]					visitedAlready;
+	private int[]							visitedAlreadySizes;
+
+	/**
+	 * Constructor to initialise fields.
+	 * 
+	 * @param maze
+	 *          Reqiress to be give already loaded maze
+	 */
+	public MazeSolverAStarBidirectional(Maze maze, Aproach implementationAproach) throws Exception {
+		super(maze, implementationAproach);
+
+		switch (implementationAproach) {
+			case ASTAR_BIDIRECTIONAL:
+				break;
+
+			default:
+				throw new Exception("Usuported aproach " + implementationAproach
+						+ " called with this solver");
+		}
+
+		int size = maze.getSize();
+		this.g = new int[2][size];
+		this.parents = new int[2][size];
+		this.visit = new IndexedHeap[2];
+		this.visitedAlready = new BitSet[2];
+		this.visitedAlreadySizes = new int[2];
+		for (int index = FORWARD; index <= BACKWARD; index++) {
+			Arrays.fill(g[index], Integer.MAX_VALUE);
+			Arrays.fill(parents[index], -1);
+			visit[index] = new IndexedHeap(size);
+			visitedAlready[index] = new BitSet(size);
+		}
+
+		this.side = FORWARD;
+		this.meetingIndex = -1;
+		this.bestMeeting = -1;
+		this.bestMeetingCost = Integer.MAX_VALUE;
+		this.startDistances = null;
+
+		this.addStartingAndDestionationPositions();
+	}
+
+	/**
+	 * Will add starting position into maze, all starting positions are put into
+	 * the forward open list with cost 0
+	 * 
+	 * @param origin
+	 * @throws Exception
+	 *           If there is no destination present it will throw exception
+	 */
+	@Override
+	public void addStartPosition(Point origin) throws Exception {
+		if (destinations.size() == 0)
+			throw new Exception("Before adding starts you have to set at least one destination!");
+
+		super.addStartPosition(origin);
+		startDistances = null;
+
+		relax(FORWARD, maze.getIndex(origin), -1, 0);
+	}
+
+	/**
+	 * Will begin at the given cell and step back till starting point is reached.
+	 * If the backward search reached the cell, the path toward the destination is
+	 * put in front of it.
+	 * 
+	 * @param index
+	 * @return
+	 */
+	@Override
+	protected int[] backTraceFromIndex(int index) {
+		IntStream.Builder path = IntStream.builder();
+
+		if (g[BACKWARD][index] != Integer.MAX_VALUE) {
+			// backward parents are leading to the destination, so reverse them
+			int[] toDestination = new int[g[BACKWARD][index]];
+			for (int cell = parents[BACKWARD][index], position = toDestination.length - 1; cell >= 0; cell = parents[BACKWARD][cell]) {
+				toDestination[position--] = cell;
+			}
+			for (int cell : toDestination) {
+				path.add(cell);
+			}
+		}
+
+		path.add(index);
+
+		if (g[FORWARD][index] != Integer.MAX_VALUE) {
+			for (int cell = parents[FORWARD][index]; cell >= 0; cell = parents[FORWARD][cell]) {
+				path.add(cell);
+			}
+		}
+		return path.build().toArray();
+	}
+
+	/**
+	 * Closes the current cell on the current side, relaxes all its neighbours
+	 * and returns the next cell to expand.
+	 * 
+	 * @param current
+	 * @return
+	 */
+	@Override
+	protected int doOneStep(int current) {
+		markNodeAsVisited(current);
+
+		int cost = g[side][current] + 1;
+
+		for (int offset : neighbourOffsets) {
+			int next = current + offset;
+
+			if (visitedAlready[side].get(next) || !maze.isWalkable(next)) continue;
+
+			relax(side, next, current, cost);
+		}
+
+		return nextStep();
+	}
+
+	/**
+	 * Manhatan distance to the closest start, with many starts the distances are
+	 * taken from the maze same as the heurestic does for the destinations
+	 * 
+	 * @param index
+	 * @return
+	 */
+	private int distanceToStart(int index) {
+		if (startIndices.length < MazeDistanceTransform.MIN_TARGETS)
+			return distanceToClosest(index, startIndices);
+
+		if (startDistances == null) startDistances = maze.getDistanceTransform(toBitSet(startIndices));
+		return startDistances.getDistance(index);
+	}
+
+	/**
+	 * Returns open lists of both sides as cell indexes
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitIndices() {
+		return IntStream.concat(visit[FORWARD].stream(), visit[BACKWARD].stream());
+	}
+
+	/**
+	 * Returns closed lists of both sides as cell indexes
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitedAlreadyIndices() {
+		return IntStream.concat(visitedAlready[FORWARD].stream(), visitedAlready[BACKWARD].stream());
+	}
+
+	@Override
+	public int getVisitedAlreadySize() {
+		return visitedAlreadySizes[FORWARD] + visitedAlreadySizes[BACKWARD];
+	}
+
+	@Override
+	public int getVisitSize() {
+		return visit[FORWARD].size() + visit[BACKWARD].size();
+	}
+
+	/**
+	 * Doubled potential of the cell for given side, backward potential is
+	 * negative of the forward one
+	 * 
+	 * @param searchSide
+	 * @param index
+	 * @return
+	 */
+	private int potential(int searchSide, int index) {
+		if (!destinationVisible) return 0;
+
+		int toDestination = heurestic(index);
+		int toStart = distanceToStart(index);
+
+		return searchSide == FORWARD ? toDestination - toStart : toStart - toDestination;
+	}
+
+	/**
+	 * Move a cell from open list to closed list of the current side
+	 * 
+	 * @param index
+	 */
+	@Override
+	protected void markNodeAsVisited(int index) {
+		if (visit[side].contains(index)) {
+			visit[side].remove(index);
+			visitedAlready[side].set(index);
+			visitedAlreadySizes[side]++;
+		}
+	}
+
+	/**
+	 * Check the stopping rule and pick side and cell for the next step, the side
+	 * with smaller open list is expanded.
+	 * 
+	 * @return next cell, meeting cell when search is finished, or -1 when there
+	 *         is no path
+	 */
+	private int nextStep() {
+		if (visit[FORWARD].isEmpty() || visit[BACKWARD].isEmpty()
+				|| (long) visit[FORWARD].key(visit[FORWARD].peek())
+						+ visit[BACKWARD].key(visit[BACKWARD].peek()) >= bestMeetingCost) {
+			meetingIndex = bestMeeting;
+			return meetingIndex;
+		}
+
+		side = (visit[FORWARD].size() <= visit[BACKWARD].size()) ? FORWARD : BACKWARD;
+
+		return visit[side].peek();
+	}
+
+	/**
+	 * Insert cell into open list of given side, or decrease its key when this
+	 * path is better. If the other side reached the cell as well it's checked as
+	 * possible meeting of both searches.
+	 * 
+	 * @param searchSide
+	 * @param index
+	 * @param parent
+	 * @param cost
+	 */
+	private void relax(int searchSide, int index, int parent, int cost) {
+		if (cost >= g[searchSide][index]) return;
+
+		g[searchSide][index] = cost;
+		parents[searchSide][index] = parent;
+		visit[searchSide].push(index, 2 * cost + potential(searchSide, index));
+
+		int otherCost = g[1 - searchSide][index];
+		if (otherCost != Integer.MAX_VALUE && 2 * (cost + otherCost) < bestMeetingCost) {
+			bestMeeting = index;
+			bestMeetingCost = 2 * (cost + otherCost);
+		}
+	}
+
+	/**
+	 * Condition which will be checked in each step
+	 * 
+	 * @return
+	 */
+	@Override
+	public boolean solveStepCondition() {
+		return currentIndex >= 0 && meetingIndex < 0;
+	}
+
+	/**
+	 * If solver is finished, flag the meeting cell as reached
+	 * 
+	 * @return
+	 */
+	@Override
+	public int solveStepFinish() {
+		this.timeStop = System.nanoTime();
+
+		doNotSolveAgain = true;
+
+		if (meetingIndex < 0) return -1;
+
+		reachedIndex = meetingIndex;
+
+		return 0;
+	}
+
+	/**
+	 * All destinations are put into the backward open list, then the first step
+	 * is picked
+	 * 
+	 * @return
+	 */
+	@Override
+	protected int solveStepFirst() {
+		for (int destination : destinationIndices) {
+			relax(BACKWARD, destination, -1, 0);
+		}
+
+		return nextStep();
+	}
+
+}
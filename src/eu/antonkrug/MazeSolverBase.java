@@ -5,6 +5,7 @@ import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -31,15 +32,20 @@ public abstract class MazeSolverBase implements MazeSolver {
 
 	public static final boolean	DEBUG	= false;
 	protected List<Point>				allDirections;
+	protected volatile boolean	cancelled;
 	protected Point							currentStep;
 	protected List<Point>				destinations;
 	protected boolean						destinationVisible;
 	protected boolean						doNotSolveAgain;
 	protected Aproach						implementationAproach;
 	protected Maze							maze;
+	// same directions as allDirections, but as cell index deltas
+	protected int[]							neighbourOffsets;
 	protected Point							origin;
-	private Long								timeStart;
-	private Long								timeStop;
+	// all starts, they are seeded together at cost zero
+	protected List<Point>				origins;
+	protected Long							timeStart;
+	protected Long							timeStop;
 
 	/**
 	 * Constructor to initialise fields.
@@ -50,6 +56,7 @@ public abstract class MazeSolverBase implements MazeSolver {
 	public MazeSolverBase(Maze maze, Aproach implementationAproach) {
 		this.destinationVisible = true;
 		this.doNotSolveAgain = false;
+		this.cancelled = false;
 		this.maze = maze;
 		this.currentStep = null;
 
@@ -57,11 +64,14 @@ public abstract class MazeSolverBase implements MazeSolver {
 		this.timeStop = this.timeStart;
 
 		this.destinations = new LinkedList<>();
+		this.origins = new LinkedList<>();
 
 		// all cardinal direction for up,down,left and right
 		this.allDirections = Arrays.asList(new Point(-1, 0), new Point(1, 0), new Point(0, 1),
 				new Point(0, -1));
 
+		this.neighbourOffsets = maze.getNeighbourOffsets();
+
 		this.implementationAproach = implementationAproach;
 
 	}
@@ -78,6 +88,16 @@ public abstract class MazeSolverBase implements MazeSolver {
 		}
 	}
 
+	/**
+	 * Remember the start, the last one added is kept in origin too
+	 * 
+	 * @param origin
+	 */
+	protected void addOrigin(Point origin) {
+		if (!origins.contains(origin)) origins.add(origin);
+		this.origin = origin;
+	}
+
 	/**
 	 * Will add both starting and final destination points from the maze is given
 	 * to this solver
@@ -124,6 +144,20 @@ public abstract class MazeSolverBase implements MazeSolver {
 	@Override
 	abstract public List<Point> backTracePath();
 
+	/**
+	 * Returns final solved path as cell indexes, by default it's adapter over
+	 * backTracePath(), index based solvers can override it.
+	 * 
+	 * @return
+	 */
+	@Override
+	public int[] backTracePathIndices() {
+		List<Point> path = backTracePath();
+		if (path == null) return null;
+
+		return path.stream().mapToInt(maze::getIndex).toArray();
+	}
+
 	/**
 	 * Returns current final path by partially solved search
 	 * 
@@ -132,6 +166,15 @@ public abstract class MazeSolverBase implements MazeSolver {
 	@Override
 	abstract public List<Point> backTracePathPartially();
 
+	/**
+	 * Ask the solver to stop, solvePath() will return -1 after the current step.
+	 * Can be called from another thread.
+	 */
+	@Override
+	public void cancel() {
+		cancelled = true;
+	}
+
 	/**
 	 * Evaluates given position with all cardinal directions and then returns the
 	 * best next step.
@@ -161,6 +204,20 @@ public abstract class MazeSolverBase implements MazeSolver {
 		return currentStep;
 	}
 
+	/**
+	 * Gets the current step position inside the solver as cell index, by default
+	 * it's adapter over getCurrentStep(), index based solvers can override it.
+	 * 
+	 * @return the currentStep or -1 if the solver didn't started
+	 */
+	@Override
+	public int getCurrentStepIndex() {
+		Point currentStep = getCurrentStep();
+		if (currentStep == null) return -1;
+
+		return maze.getIndex(currentStep);
+	}
+
 	/**
 	 * Returns all given destinations
 	 * 
@@ -179,6 +236,17 @@ public abstract class MazeSolverBase implements MazeSolver {
 	@Override
 	abstract public Stream<Point> getVisit();
 
+	/**
+	 * Returns open list as cell indexes, by default it's adapter over getVisit(),
+	 * index based solvers can override it.
+	 * 
+	 * @return the visit
+	 */
+	@Override
+	public IntStream getVisitIndices() {
+		return getVisit().mapToInt(maze::getIndex);
+	}
+
 	/**
 	 * By default retun for both alternatives null, so then if any implementation
 	 * will override any of them then that one will be called by Gui (gui detects
@@ -296,12 +364,12 @@ public abstract class MazeSolverBase implements MazeSolver {
 
 		if (solveStepInit() < 0) return -1;
 
-		while (solveStepCondition()) {
+		while (!cancelled && solveStepCondition()) {
 			solveStepOneIteration();
 			iteration++;
 		}
 
-		if (solveStepFinish() < 0) return -1;
+		if (solveStepFinish() < 0 || cancelled) return -1;
 
 		if (DEBUG) System.out.println("Took " + iteration + " iterations.");
 
@@ -348,6 +416,36 @@ public abstract class MazeSolverBase implements MazeSolver {
 		return 0;
 	}
 
+	/**
+	 * When the maze has component labels, check if any start can reach any
+	 * destination at all, so the solver doesn't flood whole area for nothing
+	 * 
+	 * @return false only when it's known there is no path
+	 */
+	protected boolean isSolvable() {
+		if (!maze.isComponentLabelling()) return true;
+
+		for (Point start : origins.isEmpty() ? Arrays.asList(origin) : origins) {
+			int component = maze.getComponent(maze.getIndex(start));
+			if (component < 0) continue;
+
+			for (Point destination : destinations) {
+				if (maze.getComponent(maze.getIndex(destination)) == component) return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Pick the first position the solver will evaluate, by default the last
+	 * added start. Solvers which seed all starts at once pick the best of them.
+	 * 
+	 * @return
+	 */
+	protected Point solveStepFirstPosition() {
+		return origin;
+	}
+
 	/**
 	 * Called before solver can do each step
 	 * 
@@ -355,12 +453,12 @@ public abstract class MazeSolverBase implements MazeSolver {
 	 */
 	@Override
 	public int solveStepInit() {
-		if (origin == null || doNotSolveAgain) {
+		if (origin == null || doNotSolveAgain || !isSolvable()) {
 			doNotSolveAgain = true;
 			return -1;
 		}
 		this.timeStart = System.nanoTime();
-		currentStep = origin;
+		currentStep = solveStepFirstPosition();
 
 		return 0;
 	}
@@ -82,7 +82,8 @@ public class MazeSolverBfs extends MazeSolverBase {
 
 	/**
 	 * Will add starting position into maze, a maze can contain multiple starting
-	 * positions. And position which will gain the shortest path will choosen.
+	 * positions. All of them are queued as the first level, so one search finds
+	 * the shortest path from any of them.
 	 * 
 	 * @param origin
 	 * @throws Exception
@@ -91,8 +92,8 @@ public class MazeSolverBfs extends MazeSolverBase {
 	@Override
 	public void addStartPosition(Point origin) throws Exception {
 		// currentPath.push(origin);
-		visit.add(origin);
-		this.origin = origin;
+		if (!visit.contains(origin)) visit.add(origin);
+		addOrigin(origin);
 	}
 
 	/**
@@ -264,4 +265,14 @@ public class MazeSolverBfs extends MazeSolverBase {
 		}
 	}
 
+	/**
+	 * All starts are in the queue, the search begins from the first of them
+	 * 
+	 * @return
+	 */
+	@Override
+	protected Point solveStepFirstPosition() {
+		return visit.peek();
+	}
+
 }
@@ -0,0 +1,296 @@
+package eu.antonkrug;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Breadth first search from both sides, one search is starting from the starts
+ * and the other one from all destinations. Whole layers are expanded
+ * alternately, always on the side which has smaller frontier. When a cell is
+ * reached by both searches the current layer is finished and the cell with the
+ * shortest sum of both distances is where the path meets. Path is stitched from
+ * both parent arrays and is as short as single sided BFS path, but each search
+ * has to go only around half of the distance.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeSolverBfsBidirectional extends MazeSolverIndexBase {
+
+	private static final int	FORWARD		= 0;
+	private static final int	BACKWARD	= 1;
+
+	// cell where both searches met, with sum of both distances
+	private int								bestMeeting;
+	private int								bestMeetingDistance;
+	// distance from the start of each side, -1 when side didn't reach the cell
+	private int[][]						distances;
+	// queue items before head are closed, items between head and tail are open
+	private int[]							heads;
+	private int[]							layerEnds;
+	private int								meetingIndex;
+	// previous cell toward the start of each side
+	private int[][]						parents;
+	private int[][]						queues;
+	private int								side;
+	private int[]							tails;
+
+	/**
+	 * Constructor to initialise fields.
+	 * 
+	 * @param maze
+	 *          Reqiress to be give already loaded maze
+	 */
+	public MazeSolverBfsBidirectional(Maze maze, Aproach implementationAproach) throws Exception {
+		super(maze, implementationAproach);
+
+		switch (implementationAproach) {
+			case BFS_BIDIRECTIONAL:
+				break;
+
+			default:
+				throw new Exception("Usuported aproach " + implementationAproach
+						+ " called with this solver");
+		}
+
+		int size = maze.getSize();
+		this.distances = new int[2][size];
+		this.parents = new int[2][size];
+		this.queues = new int[2][size];
+		this.heads = new int[2];
+		this.tails = new int[2];
+		this.layerEnds = new int[2];
+		for (int index = FORWARD; index <= BACKWARD; index++) {
+			Arrays.fill(distances[index], -1);
+			Arrays.fill(parents[index], -1);
+		}
+
+		this.side = FORWARD;
+		this.meetingIndex = -1;
+		this.bestMeeting = -1;
+		this.bestMeetingDistance = Integer.MAX_VALUE;
+
+		this.addStartingAndDestionationPositions();
+	}
+
+	/**
+	 * Will add starting position into maze, all starting positions are put into
+	 * the forward queue with distance 0
+	 * 
+	 * @param origin
+	 * @throws Exception
+	 *           If there is no destination present it will throw exception
+	 */
+	@Override
+	public void addStartPosition(Point origin) throws Exception {
+		if (destinations.size() == 0)
+			throw new Exception("Before adding starts you have to set at least one destination!");
+
+		super.addStartPosition(origin);
+
+		int start = maze.getIndex(origin);
+		if (distances[FORWARD][start] < 0) enqueue(FORWARD, start, -1);
+	}
+
+	/**
+	 * Will begin at the given cell and step back till starting point is reached.
+	 * If the backward search reached the cell, the path toward the destination is
+	 * put in front of it.
+	 * 
+	 * @param index
+	 * @return
+	 */
+	@Override
+	protected int[] backTraceFromIndex(int index) {
+		IntStream.Builder path = IntStream.builder();
+
+		if (distances[BACKWARD][index] >= 0) {
+			// backward parents are leading to the destination, so reverse them
+			int[] toDestination = new int[distances[BACKWARD][index]];
+			for (int cell = parents[BACKWARD][index], position = toDestination.length - 1; cell >= 0; cell = parents[BACKWARD][cell]) {
+				toDestination[position--] = cell;
+			}
+			for (int cell : toDestination) {
+				path.add(cell);
+			}
+		}
+
+		path.add(index);
+
+		if (distances[FORWARD][index] >= 0) {
+			for (int cell = parents[FORWARD][index]; cell >= 0; cell = parents[FORWARD][cell]) {
+				path.add(cell);
+			}
+		}
+		return path.build().toArray();
+	}
+
+	/**
+	 * Closes the current cell, puts all its unreached neighbours to the queue of
+	 * the same side and remembers where the searches met.
+	 * 
+	 * @param current
+	 * @return next cell to expand, or -1 when there is nothing to visit anymore
+	 */
+	@Override
+	protected int doOneStep(int current) {
+		markNodeAsVisited(current);
+
+		int[] distance = distances[side];
+		int[] otherDistance = distances[1 - side];
+
+		for (int offset : neighbourOffsets) {
+			int next = current + offset;
+
+			if (distance[next] >= 0 || !maze.isWalkable(next)) continue;
+
+			enqueue(side, next, current);
+
+			if (otherDistance[next] >= 0 && distance[next] + otherDistance[next] < bestMeetingDistance) {
+				bestMeeting = next;
+				bestMeetingDistance = distance[next] + otherDistance[next];
+			}
+		}
+
+		return nextStep();
+	}
+
+	/**
+	 * Put cell into the queue of given side
+	 * 
+	 * @param queueSide
+	 * @param index
+	 * @param parent
+	 */
+	private void enqueue(int queueSide, int index, int parent) {
+		distances[queueSide][index] = parent < 0 ? 0 : distances[queueSide][parent] + 1;
+		parents[queueSide][index] = parent;
+		queues[queueSide][tails[queueSide]++] = index;
+	}
+
+	/**
+	 * Returns open list (frontiers of both sides) as cell indexes
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitIndices() {
+		return IntStream.concat(Arrays.stream(queues[FORWARD], heads[FORWARD], tails[FORWARD]),
+				Arrays.stream(queues[BACKWARD], heads[BACKWARD], tails[BACKWARD]));
+	}
+
+	/**
+	 * Returns closed list (of both sides) as cell indexes
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitedAlreadyIndices() {
+		return IntStream.concat(Arrays.stream(queues[FORWARD], 0, heads[FORWARD]),
+				Arrays.stream(queues[BACKWARD], 0, heads[BACKWARD]));
+	}
+
+	@Override
+	public int getVisitedAlreadySize() {
+		return heads[FORWARD] + heads[BACKWARD];
+	}
+
+	@Override
+	public int getVisitSize() {
+		return tails[FORWARD] - heads[FORWARD] + tails[BACKWARD] - heads[BACKWARD];
+	}
+
+	/**
+	 * Move a cell from open list to closed list, only the head of the current
+	 * side can be closed
+	 * 
+	 * @param index
+	 */
+	@Override
+	protected void markNodeAsVisited(int index) {
+		if (heads[side] < tails[side] && queues[side][heads[side]] == index) heads[side]++;
+	}
+
+	/**
+	 * Pick next cell from the current layer. When the layer is finished and the
+	 * searches already met, the meeting cell is returned. Otherwise the next
+	 * layer is started on the side with smaller frontier.
+	 * 
+	 * @return
+	 */
+	private int nextStep() {
+		if (heads[side] < layerEnds[side]) return queues[side][heads[side]];
+
+		if (bestMeeting >= 0) {
+			meetingIndex = bestMeeting;
+			return meetingIndex;
+		}
+
+		// one side has nothing to expand, so the searches can't meet anymore
+		if (heads[FORWARD] == tails[FORWARD] || heads[BACKWARD] == tails[BACKWARD]) return -1;
+
+		side = (tails[FORWARD] - heads[FORWARD] <= tails[BACKWARD] - heads[BACKWARD]) ? FORWARD
+				: BACKWARD;
+		layerEnds[side] = tails[side];
+
+		return queues[side][heads[side]];
+	}
+
+	/**
+	 * Condition which will be checked in each step
+	 * 
+	 * @return
+	 */
+	@Override
+	public boolean solveStepCondition() {
+		return currentIndex >= 0 && meetingIndex < 0;
+	}
+
+	/**
+	 * If solver is finished, flag the meeting cell as reached
+	 * 
+	 * @return
+	 */
+	@Override
+	public int solveStepFinish() {
+		this.timeStop = System.nanoTime();
+
+		doNotSolveAgain = true;
+
+		if (meetingIndex < 0) return -1;
+
+		reachedIndex = meetingIndex;
+
+		return 0;
+	}
+
+	/**
+	 * All destinations are put into the backward queue, if any of them is
+	 * starting position as well then the searches met already.
+	 * 
+	 * @return
+	 */
+	@Override
+	protected int solveStepFirst() {
+		for (int destination : destinationIndices) {
+			enqueue(BACKWARD, destination, -1);
+
+			if (distances[FORWARD][destination] == 0 && bestMeeting < 0) {
+				bestMeeting = destination;
+				bestMeetingDistance = 0;
+			}
+		}
+
+		return nextStep();
+	}
+
+}
@@ -0,0 +1,493 @@
+package eu.antonkrug;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import utils.IndexedHeap;
+
+/**
+ * D* Lite, incremental A* which keeps its search state after the path is
+ * found. The search goes backward from all destinations toward the starts, G
+ * of each cell is its distance to the closest destination and RHS is the one
+ * step lookahead of it. When cells in the maze change (wall added or removed)
+ * replan() takes the changed cells from the maze journal (or the solver can be
+ * told by cellChanged()) and repairs only the cells which are affected by the
+ * change, instead of solving everything again.
+ * 
+ * All starts are connected with zero cost to one virtual start cell (index
+ * equal to maze size), so multiple starts are handled as one. Heurestic is
+ * manhatan distance to the closest start.
+ * 
+ * Open list shown by GUI are inconsistent cells (the queue), closed list are
+ * all cells with known distance.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeSolverDStarLite extends MazeSolverIndexBase {
+
+	// half of the max int, so adding cost will not overflow
+	private static final int	INFINITY	= Integer.MAX_VALUE / 2;
+
+	private int[]							g;
+	private boolean						initialized;
+	// two part key of each queued cell, compared lexicographically
+	private int[]							keyFirst;
+	private int[]							keySecond;
+	// version of the maze which was seen by the last solve
+	private long							mazeVersion;
+	private int[]							rhs;
+	private int								superStart;
+	private IndexedHeap				visit;
+	private int								visitedAlreadySize;
+
+	/**
+	 * Constructor to initialise fields.
+	 * 
+	 * @param maze
+	 *          Reqiress to be give already loaded maze
+	 */
+	public MazeSolverDStarLite(Maze maze, Aproach implementationAproach) throws Exception {
+		super(maze, implementationAproach);
+
+		switch (implementationAproach) {
+			case DSTAR_LITE:
+				break;
+
+			default:
+				throw new Exception("Usuported aproach " + implementationAproach
+						+ " called with this solver");
+		}
+
+		int size = maze.getSize();
+		this.superStart = size;
+		this.g = new int[size + 1];
+		this.rhs = new int[size + 1];
+		this.keyFirst = new int[size + 1];
+		this.keySecond = new int[size + 1];
+
+		this.visit = new IndexedHeap(size + 1) {
+			@Override
+			protected boolean less(int item, int other) {
+				return keyFirst[item] < keyFirst[other]
+						|| (keyFirst[item] == keyFirst[other] && keySecond[item] < keySecond[other]);
+			}
+		};
+		reset();
+
+		this.addStartingAndDestionationPositions();
+	}
+
+	/**
+	 * Will add starting position into maze, all starts are successors of the
+	 * virtual start cell
+	 * 
+	 * @param origin
+	 * @throws Exception
+	 *           If there is no destination present it will throw exception
+	 */
+	@Override
+	public void addStartPosition(Point origin) throws Exception {
+		if (destinations.size() == 0)
+			throw new Exception("Before adding starts you have to set at least one destination!");
+
+		super.addStartPosition(origin);
+	}
+
+	/**
+	 * Path is found by going from given cell always to the neighbour closest to
+	 * the destinations, then it's reversed so destination is first
+	 * 
+	 * @param index
+	 * @return
+	 */
+	@Override
+	protected int[] backTraceFromIndex(int index) {
+		IntStream.Builder path = IntStream.builder();
+		int steps = 1;
+		path.add(index);
+
+		// limit of steps is just a guard when the search is not finished
+		while (g[index] > 0 && g[index] < INFINITY && steps < g.length) {
+			int next = bestSuccessor(index);
+			if (next < 0 || g[next] >= g[index]) break;
+
+			path.add(next);
+			index = next;
+			steps++;
+		}
+
+		int[] cells = path.build().toArray();
+		for (int left = 0, right = cells.length - 1; left < right; left++, right--) {
+			int swap = cells[left];
+			cells[left] = cells[right];
+			cells[right] = swap;
+		}
+		return cells;
+	}
+
+	/**
+	 * Neighbour with the smallest cost + G
+	 * 
+	 * @param index
+	 * @return cell or -1 if no neighbour is reachable
+	 */
+	private int bestSuccessor(int index) {
+		int best = -1;
+		int bestCost = INFINITY;
+
+		for (int offset : neighbourOffsets) {
+			int next = index + offset;
+			if (!maze.isWalkable(next)) continue;
+
+			int cost = 1 + g[next];
+
+			if (cost < bestCost) {
+				best = next;
+				bestCost = cost;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Key of the cell, first part is like F in A*, second like G
+	 * 
+	 * @param index
+	 */
+	private void calculateKey(int index) {
+		int distance = Math.min(g[index], rhs[index]);
+
+		keyFirst[index] = Math.min(INFINITY, distance + heurestic(index));
+		keySecond[index] = distance;
+	}
+
+	/**
+	 * Tell the solver that walkability of the cell was changed in the maze, call
+	 * replan() after all changes are done
+	 * 
+	 * @param cell
+	 */
+	public void cellChanged(Point cell) {
+		cellChanged(maze.getIndex(cell));
+	}
+
+	/**
+	 * Tell the solver that walkability of the cell was changed in the maze, call
+	 * replan() after all changes are done
+	 * 
+	 * @param index
+	 */
+	public void cellChanged(int index) {
+		if (!initialized) return;
+
+		// all edges of the cell changed, so the cell and all its neighbours need
+		// new lookahead
+		updateVertex(index);
+		updateNeighbours(index);
+		if (isStart(index)) updateVertex(superStart);
+	}
+
+	/**
+	 * Cost of the step between two neighbouring cells
+	 * 
+	 * @param from
+	 * @param to
+	 * @return
+	 */
+	private int cost(int from, int to) {
+		if (from == superStart) return maze.isWalkable(to) ? 0 : INFINITY;
+
+		return maze.isWalkable(from) && maze.isWalkable(to) ? 1 : INFINITY;
+	}
+
+	/**
+	 * Processes the top of the queue, overconsistent cell gets its final G and
+	 * its predecessors are updated, underconsistent cell is reset and updated
+	 * with its predecessors.
+	 * 
+	 * @param current
+	 * @return
+	 */
+	@Override
+	protected int doOneStep(int current) {
+		int index = visit.peek();
+		int oldFirst = keyFirst[index];
+		int oldSecond = keySecond[index];
+
+		calculateKey(index);
+		if (oldFirst < keyFirst[index]
+				|| (oldFirst == keyFirst[index] && oldSecond < keySecond[index])) {
+			// key was outdated, put it back with the new one
+			visit.remove(index);
+			visit.push(index, keyFirst[index]);
+		} else if (g[index] > rhs[index]) {
+			setG(index, rhs[index]);
+			visit.remove(index);
+			updatePredecessors(index);
+		} else {
+			setG(index, INFINITY);
+			updateVertex(index);
+			updatePredecessors(index);
+		}
+
+		return nextStep();
+	}
+
+	/**
+	 * Returns queued cells as open list
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitIndices() {
+		return visit.stream().filter(index -> index != superStart);
+	}
+
+	/**
+	 * Returns all cells with known distance to destination as closed list
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitedAlreadyIndices() {
+		return IntStream.range(0, superStart).filter(index -> g[index] < INFINITY);
+	}
+
+	@Override
+	public int getVisitedAlreadySize() {
+		return visitedAlreadySize;
+	}
+
+	@Override
+	public int getVisitSize() {
+		return visit.size();
+	}
+
+	/**
+	 * Manhatan distance to the closest start, virtual start is 0
+	 * 
+	 * @param index
+	 * @return
+	 */
+	@Override
+	protected int heurestic(int index) {
+		if (!destinationVisible || index == superStart) return 0;
+
+		return distanceToClosest(index, startIndices);
+	}
+
+	/**
+	 * Cells are closed by setting their G, there is nothing more to do
+	 * 
+	 * @param index
+	 */
+	@Override
+	protected void markNodeAsVisited(int index) {
+	}
+
+	/**
+	 * Next cell to process, or -1 when the search is finished (virtual start is
+	 * consistent and nothing in the queue can make it better)
+	 * 
+	 * @return
+	 */
+	private int nextStep() {
+		int top = visit.peek();
+		if (top < 0) return -1;
+
+		// start cells have the same key as the virtual start, so ties have to be
+		// processed as well, otherwise inconsistent start could be left behind
+		calculateKey(superStart);
+		boolean notBigger = keyFirst[top] < keyFirst[superStart]
+				|| (keyFirst[top] == keyFirst[superStart] && keySecond[top] <= keySecond[superStart]);
+
+		if (!notBigger && rhs[superStart] == g[superStart]) return -1;
+
+		// virtual start is not a cell, so it's not shown as current step
+		return top == superStart ? bestStart() : top;
+	}
+
+	/**
+	 * Start cell which is the closest to destinations
+	 * 
+	 * @return
+	 */
+	private int bestStart() {
+		int best = -1;
+		for (int start : startIndices) {
+			if (best < 0 || g[start] < g[best]) best = start;
+		}
+		return best;
+	}
+
+	/**
+	 * Repair the path after cells were changed, the changes are taken from the
+	 * maze journal and only the affected cells are processed. If the journal
+	 * doesn't reach back to the last solve, everything is solved again.
+	 * 
+	 * @return Will return -1 if there is no path anymore, otherwise number of
+	 *         iterations the repair took
+	 */
+	public int replan() {
+		int[] changedCells = maze.getChangedCells(mazeVersion);
+
+		if (changedCells == null) {
+			reset();
+		} else {
+			for (int index : changedCells) {
+				cellChanged(index);
+			}
+		}
+
+		doNotSolveAgain = false;
+		reachedIndex = -1;
+
+		return solvePath();
+	}
+
+	/**
+	 * Forget whole search state, next solve will start from scratch
+	 */
+	private void reset() {
+		Arrays.fill(g, INFINITY);
+		Arrays.fill(rhs, INFINITY);
+		while (!visit.isEmpty()) {
+			visit.pop();
+		}
+
+		visitedAlreadySize = 0;
+		initialized = false;
+	}
+
+	/**
+	 * Set G and keep count of cells with known distance
+	 * 
+	 * @param index
+	 * @param value
+	 */
+	private void setG(int index, int value) {
+		if (index != superStart) {
+			if (g[index] >= INFINITY && value < INFINITY) visitedAlreadySize++;
+			if (g[index] < INFINITY && value >= INFINITY) visitedAlreadySize--;
+		}
+		g[index] = value;
+	}
+
+	/**
+	 * Condition which will be checked in each step
+	 * 
+	 * @return
+	 */
+	@Override
+	public boolean solveStepCondition() {
+		return currentIndex >= 0;
+	}
+
+	/**
+	 * If solver is finished, the best start is reached when it has known
+	 * distance
+	 * 
+	 * @return
+	 */
+	@Override
+	public int solveStepFinish() {
+		this.timeStop = System.nanoTime();
+
+		doNotSolveAgain = true;
+
+		if (g[superStart] >= INFINITY) return -1;
+
+		reachedIndex = bestStart();
+		currentIndex = reachedIndex;
+
+		return 0;
+	}
+
+	/**
+	 * On the first solve all destinations are put into the queue, on replans
+	 * the queue already holds the changed cells
+	 * 
+	 * @return
+	 */
+	@Override
+	protected int solveStepFirst() {
+		mazeVersion = maze.getVersion();
+
+		if (!initialized) {
+			initialized = true;
+
+			// all destinations, even the ones dropped by component labels could be
+			// connected by later changes
+			Arrays.stream(destinationCells).forEach(this::updateVertex);
+		}
+
+		return nextStep();
+	}
+
+	/**
+	 * Update lookahead of all cells which can step into given cell
+	 * 
+	 * @param index
+	 */
+	private void updatePredecessors(int index) {
+		if (index == superStart) return;
+
+		updateNeighbours(index);
+		if (isStart(index)) updateVertex(superStart);
+	}
+
+	/**
+	 * Update lookahead of the walkable neighbours, walls have no edges so they
+	 * are always consistent
+	 * 
+	 * @param index
+	 */
+	private void updateNeighbours(int index) {
+		for (int offset : neighbourOffsets) {
+			if (maze.isWalkable(index + offset)) updateVertex(index + offset);
+		}
+	}
+
+	/**
+	 * Recalculate RHS of the cell from its successors and keep the cell in the
+	 * queue only if it's inconsistent
+	 * 
+	 * @param index
+	 */
+	private void updateVertex(int index) {
+		if (index == superStart) {
+			int best = INFINITY;
+			for (int start : startIndices) {
+				best = Math.min(best, cost(superStart, start) + g[start]);
+			}
+			rhs[index] = best;
+		} else if (!maze.isWalkable(index)) {
+			rhs[index] = INFINITY;
+		} else if (isDestination(index)) {
+			rhs[index] = 0;
+		} else {
+			int best = INFINITY;
+			for (int offset : neighbourOffsets) {
+				best = Math.min(best, cost(index, index + offset) + g[index + offset]);
+			}
+			rhs[index] = Math.min(best, INFINITY);
+		}
+
+		visit.remove(index);
+		if (g[index] != rhs[index]) {
+			calculateKey(index);
+			visit.push(index, keyFirst[index]);
+		}
+	}
+
+}
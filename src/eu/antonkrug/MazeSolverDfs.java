@@ -85,7 +85,7 @@ public class MazeSolverDfs extends MazeSolverBase {
 	public void addStartPosition(Point origin) throws Exception {
 		// currentPath.push(origin);
 		visit.push(origin);
-		this.origin = origin;
+		addOrigin(origin);
 	}
 
 	/**
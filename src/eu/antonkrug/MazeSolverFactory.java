@@ -0,0 +1,81 @@
+package eu.antonkrug;
+
+import eu.antonkrug.MazeSolver.Aproach;
+
+/**
+ * Creates the right solver for given aproach, so GUI and benchmarks don't
+ * need to know which class implements which aproach
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeSolverFactory {
+
+	/**
+	 * Create new solver for given maze
+	 * 
+	 * @param maze
+	 *          Reqiress to be give already loaded maze
+	 * @param aproach
+	 * @return
+	 * @throws Exception
+	 *           If the aproach is not implemented, or the solver can't be
+	 *           initialized for given maze
+	 */
+	public static MazeSolver getSolver(Maze maze, Aproach aproach) throws Exception {
+		switch (aproach) {
+			case BFS_QUEUE_JDK:
+			case BFS_QUEUE_MINE:
+				return new MazeSolverBfs(maze, aproach);
+
+			case DFS_STACK_JDK:
+			case DFS_STACK_MINE:
+				return new MazeSolverDfs(maze, aproach);
+
+			case ASTAR_HASHMAP:
+			case ASTAR_CONCURENT_HASHMAP:
+				return new MazeSolverAStar(maze, aproach);
+
+			case ASTAR_BINARY_HEAP:
+			case ASTAR_BUCKET_QUEUE:
+			case ASTAR_LANDMARKS:
+				return new MazeSolverAStarArray(maze, aproach);
+
+			case JPS:
+				return new MazeSolverJps(maze, aproach);
+
+			case BFS_BIDIRECTIONAL:
+				return new MazeSolverBfsBidirectional(maze, aproach);
+
+			case ASTAR_BIDIRECTIONAL:
+				return new MazeSolverAStarBidirectional(maze, aproach);
+
+			case IDA_STAR:
+				return new MazeSolverIdaStar(maze, aproach);
+
+			case SMA_STAR:
+				return new MazeSolverSmaStar(maze, aproach);
+
+			case DSTAR_LITE:
+				return new MazeSolverDStarLite(maze, aproach);
+
+			case JUNCTION_GRAPH:
+				return new MazeSolverJunctionGraph(maze, aproach);
+
+			case HPA_STAR:
+				return new MazeSolverHpaStar(maze, aproach);
+
+			default:
+				throw new Exception("Not implemented aproach for solver selected");
+		}
+	}
+
+}
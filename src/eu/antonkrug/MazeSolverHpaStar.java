@@ -0,0 +1,300 @@
+package eu.antonkrug;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+import utils.IndexedHeap;
+
+/**
+ * Hierarchical A* (HPA*). The abstract graph of clusters and their entrances
+ * (see MazeClusterGraph) is kept by the maze between queries, so each query
+ * only connects its starts and destinations to the entrances of their
+ * clusters, runs A* over the abstract graph and then refines each abstract
+ * edge to cells by BFS inside one cluster.
+ * 
+ * HPA* is approximate, the path doesn't have to be the shortest one. Border
+ * between clusters can be crossed only at the entrance nodes, which are the
+ * middle or the ends of the entrance runs, so each crossing of the shortest
+ * path can be moved along its run by up to CLUSTER_SIZE / 2 - 1 cells. The
+ * path is at most CLUSTER_SIZE - 2 steps longer than the shortest one for each
+ * cluster border the shortest path crosses. In labyrinths most entrance runs
+ * are one cell wide and the path is usually the shortest one.
+ * 
+ * Open and closed lists shown by GUI are the abstract nodes.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1.1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeSolverHpaStar extends MazeSolverIndexBase {
+
+	private int								currentNode;
+	// query nodes (starts and then destinations) have ids from this one
+	private int								firstQueryNode;
+	// distance from start for each node
+	private int[]							g;
+	private MazeClusterGraph	graph;
+	private int[]							parent;
+	private int[]							queryCells;
+	// distances from each query node to the nodes of its cluster
+	private int[][]						queryDistances;
+	private IndexedHeap				visit;
+	private BitSet						visitedAlready;
+	private int								visitedAlreadySize;
+
+	/**
+	 * Constructor to initialise fields.
+	 * 
+	 * @param maze
+	 *          Reqiress to be give already loaded maze
+	 */
+	public MazeSolverHpaStar(Maze maze, Aproach implementationAproach) throws Exception {
+		super(maze, implementationAproach);
+
+		switch (implementationAproach) {
+			case HPA_STAR:
+				break;
+
+			default:
+				throw new Exception("Usuported aproach " + implementationAproach
+						+ " called with this solver");
+		}
+
+		this.graph = maze.getClusterGraph();
+		this.currentNode = -1;
+		this.visit = new IndexedHeap(0);
+		this.visitedAlready = new BitSet();
+		this.visitedAlreadySize = 0;
+
+		this.addStartingAndDestionationPositions();
+	}
+
+	/**
+	 * Will add starting position into maze, starts are put into the open list
+	 * when the search begins
+	 * 
+	 * @param origin
+	 * @throws Exception
+	 *           If there is no destination present it will throw exception
+	 */
+	@Override
+	public void addStartPosition(Point origin) throws Exception {
+		if (destinations.size() == 0)
+			throw new Exception("Before adding starts you have to set at least one destination!");
+
+		super.addStartPosition(origin);
+	}
+
+	/**
+	 * Steps back through the abstract nodes from the current node, each
+	 * abstract edge inside a cluster is refined to cells by BFS in that cluster
+	 * 
+	 * @param index
+	 * @return
+	 */
+	@Override
+	protected int[] backTraceFromIndex(int index) {
+		IntStream.Builder path = IntStream.builder();
+		int node = currentNode;
+
+		path.add(cellOf(node));
+		while (parent[node] >= 0) {
+			int from = cellOf(parent[node]);
+			int to = cellOf(node);
+
+			if (graph.getCluster(from) == graph.getCluster(to)) {
+				// the first cell is 'to', which is in the path already
+				int[] local = graph.pathInCluster(from, to);
+				for (int position = 1; position < local.length; position++) {
+					path.add(local[position]);
+				}
+			} else {
+				path.add(from);
+			}
+			node = parent[node];
+		}
+		return path.build().toArray();
+	}
+
+	/**
+	 * Cell of the node, query nodes are not in the graph
+	 * 
+	 * @param node
+	 * @return
+	 */
+	private int cellOf(int node) {
+		return node < firstQueryNode ? graph.getNodeCell(node) : queryCells[node - firstQueryNode];
+	}
+
+	/**
+	 * Expands the current abstract node: other nodes of its cluster, the node on
+	 * the other side of the border and destinations in the same cluster.
+	 * 
+	 * @param current
+	 * @return
+	 */
+	@Override
+	protected int doOneStep(int current) {
+		int node = currentNode;
+		int cluster = graph.getCluster(current);
+		int first = graph.getClusterNodesStart(cluster);
+		int count = graph.getClusterNodes(cluster);
+
+		markNodeAsVisited(current);
+
+		if (node < firstQueryNode) {
+			int position = node - first;
+
+			for (int other = 0; other < count; other++) {
+				if (other != position)
+					relax(first + other, node, graph.getDistance(cluster, position, other));
+			}
+
+			for (int offset : neighbourOffsets) {
+				int next = current + offset;
+				if (maze.isWalkable(next) && graph.getCluster(next) != cluster) {
+					int partner = graph.findNode(next);
+					if (partner >= 0) relax(partner, node, 1);
+				}
+			}
+
+			for (int query = startIndices.length; query < queryCells.length; query++) {
+				if (graph.getCluster(queryCells[query]) == cluster)
+					relax(firstQueryNode + query, node, queryDistances[query][position]);
+			}
+		} else {
+			// only starts are expanded, search ends on destination
+			int[] distances = queryDistances[node - firstQueryNode];
+			for (int other = 0; other < count; other++) {
+				relax(first + other, node, distances[other]);
+			}
+
+			for (int query = startIndices.length; query < queryCells.length; query++) {
+				if (graph.getCluster(queryCells[query]) == cluster) {
+					int[] local = graph.pathInCluster(current, queryCells[query]);
+					if (local != null) relax(firstQueryNode + query, node, local.length - 1);
+				}
+			}
+		}
+
+		return nextStep();
+	}
+
+	/**
+	 * Returns open list as cells of the abstract nodes
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitIndices() {
+		return visit.stream().map(this::cellOf);
+	}
+
+	/**
+	 * Returns closed list as cells of the abstract nodes
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitedAlreadyIndices() {
+		return visitedAlready.stream().map(this::cellOf);
+	}
+
+	@Override
+	public int getVisitedAlreadySize() {
+		return visitedAlreadySize;
+	}
+
+	@Override
+	public int getVisitSize() {
+		return visit.size();
+	}
+
+	/**
+	 * Move the current node from open list to closed list, given cell is the
+	 * cell of the current node
+	 * 
+	 * @param index
+	 */
+	@Override
+	protected void markNodeAsVisited(int index) {
+		if (currentNode >= 0 && visit.contains(currentNode)) {
+			visit.remove(currentNode);
+			visitedAlready.set(currentNode);
+			visitedAlreadySize++;
+		}
+	}
+
+	/**
+	 * Best node of the open list becomes the current one
+	 * 
+	 * @return its cell, or -1 when open list is empty
+	 */
+	private int nextStep() {
+		currentNode = visit.peek();
+
+		return currentNode < 0 ? -1 : cellOf(currentNode);
+	}
+
+	/**
+	 * Put node into open list, or decrease its key when this path is better
+	 * 
+	 * @param node
+	 * @param from
+	 * @param distance
+	 *          distance from the 'from' node, can be UNREACHABLE
+	 */
+	private void relax(int node, int from, int distance) {
+		if (distance == MazeClusterGraph.UNREACHABLE || visitedAlready.get(node)) return;
+
+		int cost = (from < 0 ? 0 : g[from]) + distance;
+		if (cost >= g[node]) return;
+
+		g[node] = cost;
+		parent[node] = from;
+		visit.push(node, cost + heurestic(cellOf(node)));
+	}
+
+	/**
+	 * Starts and destinations are connected to the nodes of their clusters and
+	 * all starts are put into open list
+	 * 
+	 * @return
+	 */
+	@Override
+	protected int solveStepFirst() {
+		firstQueryNode = graph.getNodeCount();
+		queryCells = IntStream.concat(Arrays.stream(startIndices), Arrays.stream(destinationIndices))
+				.toArray();
+
+		int nodes = firstQueryNode + queryCells.length;
+		g = new int[nodes];
+		parent = new int[nodes];
+		Arrays.fill(g, Integer.MAX_VALUE);
+		Arrays.fill(parent, -1);
+		visit = new IndexedHeap(nodes);
+		visitedAlready = new BitSet(nodes);
+		visitedAlreadySize = 0;
+
+		queryDistances = new int[queryCells.length][];
+		for (int query = 0; query < queryCells.length; query++) {
+			queryDistances[query] = graph.distancesToNodes(queryCells[query]);
+		}
+
+		for (int start = 0; start < startIndices.length; start++) {
+			relax(firstQueryNode + start, -1, 0);
+		}
+
+		return nextStep();
+	}
+
+}
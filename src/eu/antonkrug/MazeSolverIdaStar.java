@@ -0,0 +1,304 @@
+package eu.antonkrug;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Iterative deepening A*, depth first search which is cutting off all cells
+ * with F (G + manhatan distance) bigger than the threshold. When nothing was
+ * found the threshold is raised to the smallest F which was cut off and the
+ * search is started again. Path found is as short as A* path.
+ * 
+ * There are no open and closed lists, only the current path is kept (as
+ * explicit stack, so long paths will not overflow the java stack) and memory
+ * is O(path length). To not explore same cells again and again a bounded
+ * transposition table is used, it remembers the smallest G seen for a cell in
+ * the current iteration, collisions just overwrite older entries. With table
+ * size 0 nothing except the path is stored.
+ * 
+ * Open list shown by GUI is the current path, closed list is always empty.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeSolverIdaStar extends MazeSolverIndexBase {
+
+	public static final int	TRANSPOSITION_TABLE_SIZE	= 1 << 16;
+
+	private int							depth;
+	private int							iteration;
+	// smallest F which was bigger than threshold in this iteration
+	private int							nextThreshold;
+	// next direction to try for each cell on the path
+	private int[]						nextDirection;
+	private int[]						path;
+	// which start is used as root of the current search
+	private int							root;
+	private int							threshold;
+	private int[]						transpositionCells;
+	private int[]						transpositionG;
+	private int[]						transpositionIteration;
+	private int							transpositionMask;
+	private int							transpositionShift;
+
+	/**
+	 * Constructor to initialise fields.
+	 * 
+	 * @param maze
+	 *          Reqiress to be give already loaded maze
+	 */
+	public MazeSolverIdaStar(Maze maze, Aproach implementationAproach) throws Exception {
+		this(maze, implementationAproach, TRANSPOSITION_TABLE_SIZE);
+	}
+
+	/**
+	 * Constructor to initialise fields.
+	 * 
+	 * @param maze
+	 *          Reqiress to be give already loaded maze
+	 * @param transpositionTableSize
+	 *          number of entries in transposition table (power of 2), 0 to
+	 *          disable the table
+	 */
+	public MazeSolverIdaStar(Maze maze, Aproach implementationAproach, int transpositionTableSize)
+			throws Exception {
+		super(maze, implementationAproach);
+
+		switch (implementationAproach) {
+			case IDA_STAR:
+				break;
+
+			default:
+				throw new Exception("Usuported aproach " + implementationAproach
+						+ " called with this solver");
+		}
+
+		if (Integer.bitCount(transpositionTableSize) > 1)
+			throw new Exception("Transposition table size " + transpositionTableSize
+					+ " is not power of 2");
+
+		this.path = new int[64];
+		this.nextDirection = new int[64];
+		this.depth = 0;
+		this.iteration = 0;
+		this.root = 0;
+
+		this.transpositionCells = new int[transpositionTableSize];
+		this.transpositionG = new int[transpositionTableSize];
+		this.transpositionIteration = new int[transpositionTableSize];
+		this.transpositionMask = transpositionTableSize - 1;
+		this.transpositionShift = 32 - Integer.numberOfTrailingZeros(transpositionTableSize);
+
+		this.addStartingAndDestionationPositions();
+	}
+
+	/**
+	 * Will add starting position into maze, each start is used as root of the
+	 * depth first search one after another
+	 * 
+	 * @param origin
+	 * @throws Exception
+	 *           If there is no destination present it will throw exception
+	 */
+	@Override
+	public void addStartPosition(Point origin) throws Exception {
+		if (destinations.size() == 0)
+			throw new Exception("Before adding starts you have to set at least one destination!");
+
+		super.addStartPosition(origin);
+	}
+
+	/**
+	 * The path is the stack itself, given cell has to be on the top of it
+	 * 
+	 * @param index
+	 * @return
+	 */
+	@Override
+	protected int[] backTraceFromIndex(int index) {
+		int[] reversed = new int[depth];
+
+		for (int position = 0; position < depth; position++) {
+			reversed[position] = path[depth - 1 - position];
+		}
+		return reversed;
+	}
+
+	/**
+	 * Tries next direction of the cell on top of the path, the cell in that
+	 * direction is pushed when its F is within the threshold. When all
+	 * directions were tried the cell is popped.
+	 * 
+	 * @param current
+	 * @return new top of the path, or -1 when there is no path
+	 */
+	@Override
+	protected int doOneStep(int current) {
+		while (nextDirection[depth - 1] < neighbourOffsets.length) {
+			int next = current + neighbourOffsets[nextDirection[depth - 1]++];
+
+			// don't go straight back, it can't be better
+			if (!maze.isWalkable(next) || (depth > 1 && next == path[depth - 2])) continue;
+
+			int g = depth;
+			int f = g + heurestic(next);
+			if (f > threshold) {
+				if (f < nextThreshold) nextThreshold = f;
+				continue;
+			}
+
+			if (isTransposition(next, g)) continue;
+
+			push(next);
+			return next;
+		}
+
+		depth--;
+		if (depth > 0) return path[depth - 1];
+
+		return nextRoot();
+	}
+
+	@Override
+	public IntStream getVisitedAlreadyIndices() {
+		return IntStream.empty();
+	}
+
+	@Override
+	public int getVisitedAlreadySize() {
+		return 0;
+	}
+
+	/**
+	 * Returns the current path as open list
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitIndices() {
+		return Arrays.stream(path, 0, depth);
+	}
+
+	@Override
+	public int getVisitSize() {
+		return depth;
+	}
+
+	/**
+	 * Check if the cell was reached in this iteration already with the same or
+	 * smaller G, if not it's remembered
+	 * 
+	 * @param index
+	 * @param g
+	 * @return
+	 */
+	private boolean isTransposition(int index, int g) {
+		if (transpositionCells.length == 0) return false;
+
+		int slot = (index * 0x9E3779B9 >>> transpositionShift) & transpositionMask;
+
+		if (transpositionIteration[slot] == iteration && transpositionCells[slot] == index
+				&& transpositionG[slot] <= g) return true;
+
+		transpositionCells[slot] = index;
+		transpositionG[slot] = g;
+		transpositionIteration[slot] = iteration;
+		return false;
+	}
+
+	/**
+	 * Distances for the whole maze would defeat the bounded memory, heurestic
+	 * loops over the destinations instead
+	 * 
+	 * @return
+	 */
+	@Override
+	protected boolean isHeuresticPrecomputed() {
+		return false;
+	}
+
+	/**
+	 * There is no closed list
+	 * 
+	 * @param index
+	 */
+	@Override
+	protected void markNodeAsVisited(int index) {
+	}
+
+	/**
+	 * Start the search from the next start, when all starts were used the
+	 * threshold is raised and the search is started from the first one again
+	 * 
+	 * @return
+	 */
+	private int nextRoot() {
+		while (true) {
+			if (root == startIndices.length) {
+				// nothing was cut off, so there is nothing else to explore
+				if (nextThreshold == Integer.MAX_VALUE) return -1;
+
+				threshold = nextThreshold;
+				nextThreshold = Integer.MAX_VALUE;
+				iteration++;
+				root = 0;
+			}
+
+			int start = startIndices[root++];
+			int f = heurestic(start);
+
+			if (f > threshold) {
+				if (f < nextThreshold) nextThreshold = f;
+				continue;
+			}
+
+			if (isTransposition(start, 0)) continue;
+
+			push(start);
+			return start;
+		}
+	}
+
+	/**
+	 * Put cell on the top of the path
+	 * 
+	 * @param index
+	 */
+	private void push(int index) {
+		if (depth == path.length) {
+			path = Arrays.copyOf(path, depth * 2);
+			nextDirection = Arrays.copyOf(nextDirection, depth * 2);
+		}
+		path[depth] = index;
+		nextDirection[depth] = 0;
+		depth++;
+	}
+
+	/**
+	 * First iteration threshold is the smallest heurestic of all starts
+	 * 
+	 * @return
+	 */
+	@Override
+	protected int solveStepFirst() {
+		threshold = Integer.MAX_VALUE;
+		for (int start : startIndices) {
+			threshold = Math.min(threshold, heurestic(start));
+		}
+		nextThreshold = Integer.MAX_VALUE;
+		iteration = 1;
+		root = 0;
+
+		return nextRoot();
+	}
+
+}
@@ -0,0 +1,466 @@
+package eu.antonkrug;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Base for solvers which work with int cell indexes (y * width + x) instead of
+ * Points, so their open and closed lists can be primitive arrays and no
+ * objects are allocated in each step. All Point based methods of MazeSolver
+ * are just adapters over the index based ones, so GUI, benchmark and JUnit
+ * tests can use these solvers same way as the others.
+ * 
+ * Starts and destinations are kept as sorted arrays of cell indexes, so their
+ * memory depends only on their count and not on where they are in the maze.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1.1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public abstract class MazeSolverIndexBase extends MazeSolverBase {
+
+	// current step as cell index, -1 when solver didn't started
+	protected int										currentIndex;
+	// all destinations, sorted
+	protected int[]									destinationCells;
+	// heurestic for many destinations shared through the maze, null till needed
+	private MazeDistanceTransform	destinationDistances;
+	// destinations the heurestic aims at (without unreachable ones), sorted
+	protected int[]									destinationIndices;
+	// destination which was reached, -1 when none
+	protected int										reachedIndex;
+	// sorted
+	protected int[]									startIndices;
+
+	/**
+	 * Constructor to initialise fields.
+	 * 
+	 * @param maze
+	 *          Reqiress to be give already loaded maze
+	 */
+	public MazeSolverIndexBase(Maze maze, Aproach implementationAproach) {
+		super(maze, implementationAproach);
+
+		this.currentIndex = -1;
+		this.reachedIndex = -1;
+		this.destinationCells = new int[0];
+		this.destinationIndices = new int[0];
+		this.startIndices = new int[0];
+	}
+
+	/**
+	 * Will add one or more destinations to maze
+	 * 
+	 * @param destination
+	 */
+	@Override
+	public void addDestinationPosition(Point destination) {
+		super.addDestinationPosition(destination);
+		destinationCells = withCell(destinationCells, maze.getIndex(destination));
+		destinationIndices = destinationCells;
+		destinationDistances = null;
+	}
+
+	/**
+	 * Will add starting position into maze, a maze can contain multiple starting
+	 * positions. And position which will gain the shortest path will choosen.
+	 * 
+	 * @param origin
+	 * @throws Exception
+	 */
+	@Override
+	public void addStartPosition(Point origin) throws Exception {
+		startIndices = withCell(startIndices, maze.getIndex(origin));
+		addOrigin(origin);
+	}
+
+	/**
+	 * Returns final solved path
+	 * 
+	 * @return
+	 */
+	@Override
+	public List<Point> backTracePath() {
+		return toPoints(backTracePathIndices());
+	}
+
+	/**
+	 * Returns final solved path as cell indexes
+	 * 
+	 * @return
+	 */
+	@Override
+	public int[] backTracePathIndices() {
+		if (reachedIndex < 0) return null;
+
+		int[] path = backTraceFromIndex(reachedIndex);
+
+		if (DEBUG) System.out.println("Path is " + path.length + " steps long.");
+		return path;
+	}
+
+	/**
+	 * Returns current final path by partially solved search
+	 * 
+	 * @return
+	 */
+	@Override
+	public List<Point> backTracePathPartially() {
+		if (currentIndex < 0) return new LinkedList<Point>();
+
+		return toPoints(backTraceFromIndex(currentIndex));
+	}
+
+	/**
+	 * Will begin at the given cell and step back till starting point is reached
+	 * 
+	 * @param index
+	 * @return Path which is betwen start poistion and given cell (given cell
+	 *         first)
+	 */
+	abstract protected int[] backTraceFromIndex(int index);
+
+	/**
+	 * Manhatan distance from given cell to the closest of given cells
+	 * 
+	 * @param index
+	 * @param cells
+	 * @return distance or Integer.MAX_VALUE when cells are empty
+	 */
+	protected int distanceToClosest(int index, int[] cells) {
+		int width = maze.getWidth();
+		int x = index % width;
+		int y = index / width;
+		int smallest = Integer.MAX_VALUE;
+
+		for (int cell : cells) {
+			int distance = Math.abs(x - cell % width) + Math.abs(y - cell / width);
+			if (distance < smallest) smallest = distance;
+		}
+
+		return smallest;
+	}
+
+	/**
+	 * Adapter for the Point based step
+	 */
+	@Override
+	protected Point doOneStep(Point currentPosition) {
+		int next = doOneStep(maze.getIndex(currentPosition));
+
+		return next < 0 ? null : maze.getPoint(next);
+	}
+
+	/**
+	 * Evaluates given cell with all cardinal directions and then returns the best
+	 * next step.
+	 * 
+	 * @param current
+	 * @return next cell index, or -1 when there is nothing to visit anymore
+	 */
+	abstract protected int doOneStep(int current);
+
+	/**
+	 * Gets the current step position inside the solver
+	 * 
+	 * @return the currentStep
+	 */
+	@Override
+	public Point getCurrentStep() {
+		return currentIndex < 0 ? null : maze.getPoint(currentIndex);
+	}
+
+	/**
+	 * Gets the current step position inside the solver as cell index
+	 * 
+	 * @return the currentStep or -1 if the solver didn't started
+	 */
+	@Override
+	public int getCurrentStepIndex() {
+		return currentIndex;
+	}
+
+	/**
+	 * Returns open list
+	 * 
+	 * @return the visit
+	 */
+	@Override
+	public Stream<Point> getVisit() {
+		return getVisitIndices().mapToObj(maze::getPoint);
+	}
+
+	/**
+	 * Returns open list as cell indexes
+	 * 
+	 * @return the visit
+	 */
+	@Override
+	abstract public IntStream getVisitIndices();
+
+	/**
+	 * Closed list is not a map, so GUI will use this alternative
+	 * 
+	 * @return
+	 */
+	@Override
+	public Stream<Point> getVisitedAlreadyAlternative() {
+		return getVisitedAlreadyIndices().mapToObj(maze::getPoint);
+	}
+
+	/**
+	 * Returns closed list as cell indexes
+	 * 
+	 * @return
+	 */
+	abstract public IntStream getVisitedAlreadyIndices();
+
+	/**
+	 * Manhatan distance to the closest destination, or 0 when solver is not
+	 * allowed to see the destination. With many destinations the distances are
+	 * precomputed for all cells at the first call, unless the solver opts out.
+	 * 
+	 * @param index
+	 * @return
+	 */
+	protected int heurestic(int index) {
+		if (!destinationVisible) return 0;
+
+		if (destinationIndices.length < MazeDistanceTransform.MIN_TARGETS
+				|| !isHeuresticPrecomputed()) return distanceToClosest(index, destinationIndices);
+
+		if (destinationDistances == null)
+			destinationDistances = maze.getDistanceTransform(toBitSet(destinationIndices));
+		return destinationDistances.getDistance(index);
+	}
+
+	/**
+	 * @param index
+	 * @return true when the cell is one of the destinations
+	 */
+	protected boolean isDestination(int index) {
+		return Arrays.binarySearch(destinationCells, index) >= 0;
+	}
+
+	/**
+	 * @param index
+	 * @return true when the cell is one of the starts
+	 */
+	protected boolean isStart(int index) {
+		return Arrays.binarySearch(startIndices, index) >= 0;
+	}
+
+	/**
+	 * Can the heurestic use distances precomputed for the whole maze (2 bytes
+	 * per cell, shared with other solvers of the maze). Solvers which are meant
+	 * to keep their memory bounded override it and loop over the destinations.
+	 * 
+	 * @return
+	 */
+	protected boolean isHeuresticPrecomputed() {
+		return true;
+	}
+
+	/**
+	 * Adapter for the Point based method
+	 * 
+	 * @param index
+	 */
+	@Override
+	protected void markNodeAsVisited(Point index) {
+		markNodeAsVisited(maze.getIndex(index));
+	}
+
+	/**
+	 * Move a cell from open list to closed list
+	 * 
+	 * @param index
+	 */
+	abstract protected void markNodeAsVisited(int index);
+
+	/**
+	 * Set all destinations to given list.
+	 * 
+	 * @param destinations
+	 */
+	@Override
+	public void setDestinations(List<Point> destinations) {
+		super.setDestinations(destinations);
+
+		destinationCells = sortedUnique(destinations.stream().mapToInt(maze::getIndex).toArray());
+		destinationIndices = destinationCells;
+		destinationDistances = null;
+	}
+
+	/**
+	 * When the maze has component labels, destinations which can't be reached
+	 * from any start are dropped from the heurestic and solver is not started
+	 * when none is left
+	 * 
+	 * @return false only when it's known there is no path
+	 */
+	@Override
+	protected boolean isSolvable() {
+		if (!maze.isComponentLabelling()) return true;
+
+		int[] startComponents = sortedUnique(Arrays.stream(startIndices).map(maze::getComponent)
+				.filter(component -> component >= 0).toArray());
+
+		destinationIndices = Arrays.stream(destinationCells)
+				.filter(destination -> maze.getComponent(destination) >= 0
+						&& Arrays.binarySearch(startComponents, maze.getComponent(destination)) >= 0)
+				.toArray();
+		destinationDistances = null;
+
+		return destinationIndices.length > 0;
+	}
+
+	/**
+	 * Condition which will be checked in each step
+	 * 
+	 * @return
+	 */
+	@Override
+	public boolean solveStepCondition() {
+		return currentIndex >= 0 && !isDestination(currentIndex) && getVisitSize() > 0;
+	}
+
+	/**
+	 * Check if solver didn't started yet
+	 * 
+	 * @return
+	 */
+	@Override
+	public boolean solveStepDidntStarted() {
+		return currentIndex < 0;
+	}
+
+	/**
+	 * If solver is finished, do final checks and cleanup
+	 * 
+	 * @return
+	 */
+	@Override
+	public int solveStepFinish() {
+		this.timeStop = System.nanoTime();
+
+		doNotSolveAgain = true;
+
+		if (currentIndex < 0 || !isDestination(currentIndex)) return -1;
+
+		// last step, when destination and current step are the same, we will flag
+		// which destionation we reached
+		markNodeAsVisited(currentIndex);
+		reachedIndex = currentIndex;
+
+		return 0;
+	}
+
+	/**
+	 * Called before solver can do each step, the first step is taken from the
+	 * open list
+	 * 
+	 * @return
+	 */
+	@Override
+	public int solveStepInit() {
+		if (super.solveStepInit() < 0) return -1;
+
+		currentIndex = solveStepFirst();
+		return 0;
+	}
+
+	/**
+	 * Pick the first cell the solver will evaluate
+	 * 
+	 * @return
+	 */
+	abstract protected int solveStepFirst();
+
+	/**
+	 * If solveStepCondition() returns true you can do one step iteration
+	 */
+	@Override
+	public void solveStepOneIteration() {
+		currentIndex = doOneStep(currentIndex);
+	}
+
+	/**
+	 * Sort the cells and drop the duplicates, the array is sorted in place
+	 * 
+	 * @param cells
+	 * @return
+	 */
+	protected static int[] sortedUnique(int[] cells) {
+		Arrays.sort(cells);
+
+		int size = 0;
+		for (int cell : cells) {
+			if (size == 0 || cells[size - 1] != cell) cells[size++] = cell;
+		}
+		return Arrays.copyOf(cells, size);
+	}
+
+	/**
+	 * Set of the cells, only for the distance transforms of the maze which are
+	 * keyed by BitSet
+	 * 
+	 * @param cells
+	 * @return
+	 */
+	protected static BitSet toBitSet(int[] cells) {
+		BitSet set = new BitSet();
+		for (int cell : cells) {
+			set.set(cell);
+		}
+		return set;
+	}
+
+	/**
+	 * Convert cell indexes to Points
+	 * 
+	 * @param path
+	 * @return
+	 */
+	protected List<Point> toPoints(int[] path) {
+		if (path == null) return null;
+
+		List<Point> points = new LinkedList<>();
+		for (int index : path) {
+			points.add(maze.getPoint(index));
+		}
+		return points;
+	}
+
+	/**
+	 * Sorted cells with one more cell, the same array when it's there already
+	 * 
+	 * @param cells
+	 * @param cell
+	 * @return
+	 */
+	private static int[] withCell(int[] cells, int cell) {
+		int position = Arrays.binarySearch(cells, cell);
+		if (position >= 0) return cells;
+
+		position = -position - 1;
+		int[] grown = new int[cells.length + 1];
+		System.arraycopy(cells, 0, grown, 0, position);
+		grown[position] = cell;
+		System.arraycopy(cells, position, grown, position + 1, cells.length - position);
+		return grown;
+	}
+
+}
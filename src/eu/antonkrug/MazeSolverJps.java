@@ -0,0 +1,307 @@
+package eu.antonkrug;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+import utils.IndexedHeap;
+
+/**
+ * Jump Point Search for 4-connected grid. Open areas have many paths with the
+ * same length (grid symmetry) and A* would expand almost every cell there. JPS
+ * is jumping in straight lines and only cells where the path may need to turn
+ * (jump points) are put into open list, the cells between them are never
+ * expanded. Horizontal jump stops on a forced neighbour (opening above or below
+ * right behind a wall), vertical jump stops on forced neighbour or when any
+ * horizontal jump from it would stop. Path is as short as A* path.
+ * 
+ * Open and closed lists contain only jump points, so GUI will show just them.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeSolverJps extends MazeSolverIndexBase {
+
+	// distance from start for each jump point
+	private int[]				g;
+	// previous jump point, cells between them are in straight line
+	private int[]				parent;
+	private IndexedHeap	visit;
+	private BitSet			visitedAlready;
+	private int					visitedAlreadySize;
+	private int					width;
+
+	/**
+	 * Constructor to initialise fields.
+	 * 
+	 * @param maze
+	 *          Reqiress to be give already loaded maze
+	 */
+	public MazeSolverJps(Maze maze, Aproach implementationAproach) throws Exception {
+		super(maze, implementationAproach);
+
+		switch (implementationAproach) {
+			case JPS:
+				break;
+
+			default:
+				throw new Exception("Usuported aproach " + implementationAproach
+						+ " called with this solver");
+		}
+
+		int size = maze.getSize();
+		this.width = maze.getWidth();
+		this.g = new int[size];
+		this.parent = new int[size];
+		Arrays.fill(g, Integer.MAX_VALUE);
+		Arrays.fill(parent, -1);
+
+		this.visit = new IndexedHeap(size);
+		this.visitedAlready = new BitSet(size);
+		this.visitedAlreadySize = 0;
+
+		this.addStartingAndDestionationPositions();
+	}
+
+	/**
+	 * Will add starting position into maze, all starting positions are put into
+	 * open list with cost 0, so the one which gain the shortest path will win.
+	 * 
+	 * @param origin
+	 * @throws Exception
+	 *           If there is no destination present it will throw exception
+	 */
+	@Override
+	public void addStartPosition(Point origin) throws Exception {
+		if (destinations.size() == 0)
+			throw new Exception("Before adding starts you have to set at least one destination!");
+
+		super.addStartPosition(origin);
+
+		int start = maze.getIndex(origin);
+		g[start] = 0;
+		parent[start] = -1;
+		visit.push(start, heurestic(start));
+	}
+
+	/**
+	 * Will begin at the given jump point and step back till starting point is
+	 * reached, all cells between jump points are filled in
+	 * 
+	 * @param index
+	 * @return
+	 */
+	@Override
+	protected int[] backTraceFromIndex(int index) {
+		IntStream.Builder path = IntStream.builder();
+
+		while (index >= 0) {
+			int previous = parent[index];
+			path.add(index);
+
+			if (previous >= 0) {
+				int step = direction(index, previous);
+				for (int cell = index + step; cell != previous; cell += step) {
+					path.add(cell);
+				}
+			}
+			index = previous;
+		}
+		return path.build().toArray();
+	}
+
+	/**
+	 * Offset of one step from one cell toward other cell in the same row or
+	 * column
+	 * 
+	 * @param from
+	 * @param to
+	 * @return
+	 */
+	private int direction(int from, int to) {
+		if (from / width == to / width) return Integer.signum(to - from);
+
+		return Integer.signum(to - from) * width;
+	}
+
+	/**
+	 * Manhatan distance between two cells
+	 * 
+	 * @param from
+	 * @param to
+	 * @return
+	 */
+	private int distance(int from, int to) {
+		return Math.abs(from % width - to % width) + Math.abs(from / width - to / width);
+	}
+
+	/**
+	 * Closes the current jump point, jumps in all directions which are not
+	 * pruned and puts found jump points to the open list
+	 * 
+	 * @param current
+	 * @return
+	 */
+	@Override
+	protected int doOneStep(int current) {
+		markNodeAsVisited(current);
+
+		int previous = parent[current];
+
+		if (previous < 0) {
+			// start has no direction so all directions are searched
+			for (int offset : neighbourOffsets) {
+				evaluateJump(current, offset);
+			}
+		} else {
+			int forward = direction(previous, current);
+
+			// keep going forward, and try to turn to both sides
+			evaluateJump(current, forward);
+			if (Math.abs(forward) == 1) {
+				evaluateJump(current, width);
+				evaluateJump(current, -width);
+			} else {
+				evaluateJump(current, 1);
+				evaluateJump(current, -1);
+			}
+		}
+
+		if (DEBUG) System.out.println(visit.peek());
+		return visit.peek();
+	}
+
+	/**
+	 * Jump from given cell in given direction and if jump point is found, put it
+	 * into the open list (or decrease its key if this path is better)
+	 * 
+	 * @param current
+	 * @param step
+	 */
+	private void evaluateJump(int current, int step) {
+		int jumpPoint = (Math.abs(step) == 1) ? jumpHorizontal(current + step, step) : jumpVertical(
+				current + step, step);
+
+		if (jumpPoint < 0 || visitedAlready.get(jumpPoint)) return;
+
+		int cost = g[current] + distance(current, jumpPoint);
+		if (cost < g[jumpPoint]) {
+			g[jumpPoint] = cost;
+			parent[jumpPoint] = current;
+			visit.push(jumpPoint, cost + heurestic(jumpPoint));
+		}
+	}
+
+	/**
+	 * Returns open list (only jump points) as cell indexes
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitIndices() {
+		return visit.stream();
+	}
+
+	/**
+	 * Returns closed list (only jump points) as cell indexes
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitedAlreadyIndices() {
+		return visitedAlready.stream();
+	}
+
+	@Override
+	public int getVisitedAlreadySize() {
+		return visitedAlreadySize;
+	}
+
+	@Override
+	public int getVisitSize() {
+		return visit.size();
+	}
+
+	/**
+	 * Go horizontally till wall, destination or forced neighbour (cell above or
+	 * below is open, but the one behind it is wall) is found
+	 * 
+	 * @param index
+	 *          first cell of the jump
+	 * @param step
+	 *          -1 or 1
+	 * @return jump point or -1 if wall was hit
+	 */
+	private int jumpHorizontal(int index, int step) {
+		while (maze.isWalkable(index)) {
+			if (isDestination(index)) return index;
+
+			if ((maze.isWalkable(index - width) && !maze.isWalkable(index - step - width))
+					|| (maze.isWalkable(index + width) && !maze.isWalkable(index - step + width)))
+				return index;
+
+			index += step;
+		}
+		return -1;
+	}
+
+	/**
+	 * Go vertically till wall, destination or forced neighbour (cell on left or
+	 * right is open, but the one behind it is wall) is found. The cell is jump
+	 * point as well if any horizontal jump from it would find a jump point.
+	 * 
+	 * @param index
+	 *          first cell of the jump
+	 * @param step
+	 *          -width or width
+	 * @return jump point or -1 if wall was hit
+	 */
+	private int jumpVertical(int index, int step) {
+		while (maze.isWalkable(index)) {
+			if (isDestination(index)) return index;
+
+			if ((maze.isWalkable(index - 1) && !maze.isWalkable(index - 1 - step))
+					|| (maze.isWalkable(index + 1) && !maze.isWalkable(index + 1 - step)))
+				return index;
+
+			if (jumpHorizontal(index + 1, 1) >= 0 || jumpHorizontal(index - 1, -1) >= 0) return index;
+
+			index += step;
+		}
+		return -1;
+	}
+
+	/**
+	 * Move a jump point from open list to closed list
+	 * 
+	 * @param index
+	 */
+	@Override
+	protected void markNodeAsVisited(int index) {
+		if (visit.contains(index)) {
+			visit.remove(index);
+			visitedAlready.set(index);
+			visitedAlreadySize++;
+		}
+	}
+
+	/**
+	 * First step is the best start from the open list
+	 * 
+	 * @return
+	 */
+	@Override
+	protected int solveStepFirst() {
+		return visit.peek();
+	}
+
+}
@@ -0,0 +1,429 @@
+package eu.antonkrug;
+
+import java.awt.Point;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import utils.IndexedHeap;
+
+/**
+ * A* over the junction graph of the maze (see MazeGraph), corridors are
+ * single weighted edges so only junctions, dead ends, starts and finishes are
+ * expanded. Heurestic is manhatan distance of the node cell, which is still
+ * admissible because corridor can't be shorter than manhatan distance of its
+ * ends. When the path is back traced, the corridors of the used edges are
+ * walked again to get all cells.
+ * 
+ * Starts and finishes of the maze are nodes of the graph. Other starts and
+ * destinations given to the solver, which are inside a corridor, become query
+ * nodes for one search (same as in HPA*), connected by the corridor to the
+ * nodes at both its ends, or directly to other query node in the same
+ * corridor. Query cells in dead ends (which are filled in the graph) are
+ * connected to the cell where their dead end joins the graph.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1.1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeSolverJunctionGraph extends MazeSolverIndexBase {
+
+	private int						currentNode;
+	// query nodes (starts and destinations in corridors, and the cells where
+	// their dead ends join the graph) have ids from this one
+	private int						firstQueryNode;
+	// distance from start for each node
+	private int[]					g;
+	private MazeGraph			graph;
+	// edge which reached each node, -1 for starts, edges of query nodes have ids
+	// after the edges of the graph
+	private int[]					parentEdge;
+	private int[]					queryCells;
+	// corridor of each query edge, up to and including its target
+	private int[][]				queryEdgeCells;
+	private int[]					queryEdgeSource;
+	private int[]					queryEdgeTarget;
+	private IndexedHeap		visit;
+	private BitSet				visitedAlready;
+	private int						visitedAlreadySize;
+
+	/**
+	 * Constructor to initialise fields.
+	 * 
+	 * @param maze
+	 *          Reqiress to be give already loaded maze
+	 */
+	public MazeSolverJunctionGraph(Maze maze, Aproach implementationAproach) throws Exception {
+		super(maze, implementationAproach);
+
+		switch (implementationAproach) {
+			case JUNCTION_GRAPH:
+				break;
+
+			default:
+				throw new Exception("Usuported aproach " + implementationAproach
+						+ " called with this solver");
+		}
+
+		this.graph = maze.getJunctionGraph();
+		this.currentNode = -1;
+		this.visit = new IndexedHeap(0);
+		this.visitedAlready = new BitSet();
+		this.visitedAlreadySize = 0;
+
+		this.addStartingAndDestionationPositions();
+	}
+
+	/**
+	 * Will add starting position into maze, starts are put into the open list
+	 * when the search begins
+	 * 
+	 * @param origin
+	 * @throws Exception
+	 *           If there is no destination present it will throw exception
+	 */
+	@Override
+	public void addStartPosition(Point origin) throws Exception {
+		if (destinations.size() == 0)
+			throw new Exception("Before adding starts you have to set at least one destination!");
+
+		super.addStartPosition(origin);
+	}
+
+	/**
+	 * Connect the query cell to both ends of its corridor in the graph, or to
+	 * other query cells in the corridor
+	 * 
+	 * @param cell
+	 *          query cell in a corridor of the graph
+	 * @param stops
+	 *          all query cells
+	 * @param edges
+	 *          list where the new edges are added
+	 */
+	private void addCorridorEdges(int cell, BitSet stops, List<int[]> edges) {
+		for (int offset : neighbourOffsets) {
+			if (!graph.isWalkable(cell + offset)) continue;
+
+			int[] corridor = graph.getCorridorCells(cell, cell + offset, stops);
+			if (corridor != null) addEdges(cell, corridor, edges);
+		}
+	}
+
+	/**
+	 * Add edge through the cells and the same edge in opposite direction
+	 * 
+	 * @param from
+	 *          cell where the edge begins
+	 * @param cells
+	 *          cells of the edge, up to and including its target
+	 * @param edges
+	 *          list where the new edges are added
+	 */
+	private void addEdges(int from, int[] cells, List<int[]> edges) {
+		// the way back is the same cells reversed, ending in the first cell
+		int[] back = new int[cells.length];
+		for (int position = 0; position < cells.length - 1; position++) {
+			back[position] = cells[cells.length - 2 - position];
+		}
+		back[back.length - 1] = from;
+
+		edges.add(cells);
+		edges.add(back);
+	}
+
+	/**
+	 * Graph is built from the maze with dead ends filled, so the way out of the
+	 * dead end with the query cell is found by BFS. The cell where the dead end
+	 * joins the graph becomes query node as well, when it's not a node already.
+	 * Other query cells in the same dead end are connected directly.
+	 * 
+	 * @param cell
+	 *          query cell in a dead end
+	 * @param stops
+	 *          all query cells, the joins are added
+	 * @param joins
+	 *          list where the new query cells are added
+	 * @param edges
+	 *          list where the new edges are added
+	 */
+	private void addDeadEndEdges(int cell, BitSet stops, List<Integer> joins, List<int[]> edges) {
+		Map<Integer, Integer> parents = new HashMap<>();
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		parents.put(cell, -1);
+		queue.add(cell);
+
+		while (!queue.isEmpty()) {
+			int current = queue.poll();
+
+			if (current != cell && (graph.isWalkable(current) || stops.get(current))) {
+				int length = 0;
+				for (int step = current; step != cell; step = parents.get(step)) {
+					length++;
+				}
+				int[] way = new int[length];
+				for (int step = current; step != cell; step = parents.get(step)) {
+					way[--length] = step;
+				}
+				addEdges(cell, way, edges);
+
+				// the rest is not filled, so it's searched by the graph
+				if (graph.isWalkable(current)) {
+					if (graph.getNode(current) < 0 && !stops.get(current)) {
+						stops.set(current);
+						joins.add(current);
+					}
+					continue;
+				}
+			}
+
+			for (int offset : neighbourOffsets) {
+				int next = current + offset;
+				if (maze.isWalkable(next) && !parents.containsKey(next)) {
+					parents.put(next, current);
+					queue.add(next);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Will begin at the given cell and step back through the parent edges till
+	 * starting point is reached, corridor of each edge is added in reverse
+	 * 
+	 * @param index
+	 * @return
+	 */
+	@Override
+	protected int[] backTraceFromIndex(int index) {
+		IntStream.Builder path = IntStream.builder();
+		int node = nodeOf(index);
+
+		path.add(index);
+		while (parentEdge[node] >= 0) {
+			int edge = parentEdge[node];
+			int[] corridor;
+
+			if (edge < graph.getEdges()) {
+				corridor = graph.getEdgeCells(edge);
+				node = graph.getEdgeSource(edge);
+			} else {
+				corridor = queryEdgeCells[edge - graph.getEdges()];
+				node = queryEdgeSource[edge - graph.getEdges()];
+			}
+
+			// the last cell of the corridor is the node itself, it's in the path
+			for (int position = corridor.length - 2; position >= 0; position--) {
+				path.add(corridor[position]);
+			}
+			path.add(cellOf(node));
+		}
+		return path.build().toArray();
+	}
+
+	/**
+	 * Cell of the node, query nodes are not in the graph
+	 * 
+	 * @param node
+	 * @return
+	 */
+	private int cellOf(int node) {
+		return node < firstQueryNode ? graph.getCell(node) : queryCells[node - firstQueryNode];
+	}
+
+	/**
+	 * Evaluates all edges of the given node and then returns the best next node
+	 * as its cell.
+	 * 
+	 * @param current
+	 * @return
+	 */
+	@Override
+	protected int doOneStep(int current) {
+		int node = currentNode;
+		markNodeAsVisited(current);
+
+		if (node < firstQueryNode) {
+			for (int edge = graph.getEdgesStart(node); edge < graph.getEdgesStart(node + 1); edge++) {
+				relax(graph.getEdgeTarget(edge), node, edge, graph.getEdgeWeight(edge));
+			}
+		}
+
+		for (int edge = 0; edge < queryEdgeSource.length; edge++) {
+			if (queryEdgeSource[edge] == node)
+				relax(queryEdgeTarget[edge], node, graph.getEdges() + edge, queryEdgeCells[edge].length);
+		}
+
+		return nextCell();
+	}
+
+	/**
+	 * @return the graph this solver is searching
+	 */
+	public MazeGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns open list as cells of the nodes
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitIndices() {
+		return visit.stream().map(this::cellOf);
+	}
+
+	/**
+	 * Returns closed list as cells of the nodes
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitedAlreadyIndices() {
+		return visitedAlready.stream().map(this::cellOf);
+	}
+
+	@Override
+	public int getVisitedAlreadySize() {
+		return visitedAlreadySize;
+	}
+
+	@Override
+	public int getVisitSize() {
+		return visit.size();
+	}
+
+	/**
+	 * Move the current node from open list to closed list, given cell is the
+	 * cell of the current node
+	 * 
+	 * @param index
+	 */
+	@Override
+	protected void markNodeAsVisited(int index) {
+		int node = currentNode;
+
+		if (node >= 0 && visit.contains(node)) {
+			visit.remove(node);
+			visitedAlready.set(node);
+			visitedAlreadySize++;
+		}
+	}
+
+	/**
+	 * Best node of the open list becomes the current one
+	 * 
+	 * @return its cell, or -1 when open list is empty
+	 */
+	private int nextCell() {
+		currentNode = visit.peek();
+
+		return currentNode < 0 ? -1 : cellOf(currentNode);
+	}
+
+	/**
+	 * Node of the cell, graph node or query node
+	 * 
+	 * @param index
+	 * @return
+	 */
+	private int nodeOf(int index) {
+		if (graph.getNode(index) >= 0) return graph.getNode(index);
+
+		for (int query = 0; query < queryCells.length; query++) {
+			if (queryCells[query] == index) return firstQueryNode + query;
+		}
+		return -1;
+	}
+
+	/**
+	 * Put node into open list, or decrease its key when this path is better
+	 * 
+	 * @param node
+	 * @param from
+	 *          node where the edge begins, -1 for starts
+	 * @param edge
+	 * @param weight
+	 */
+	private void relax(int node, int from, int edge, int weight) {
+		if (visitedAlready.get(node)) return;
+
+		int cost = (from < 0 ? 0 : g[from]) + weight;
+		if (cost >= g[node]) return;
+
+		g[node] = cost;
+		parentEdge[node] = edge;
+		visit.push(node, cost + heurestic(cellOf(node)));
+	}
+
+	/**
+	 * Starts and destinations inside corridors become query nodes connected to
+	 * the ends of their corridors, then all starts are put into open list
+	 * 
+	 * @return
+	 */
+	@Override
+	protected int solveStepFirst() {
+		int[] cells = IntStream.concat(Arrays.stream(startIndices), Arrays.stream(destinationIndices))
+				.filter(cell -> graph.getNode(cell) < 0 && maze.isWalkable(cell)).distinct().toArray();
+
+		BitSet stops = new BitSet();
+		for (int cell : cells) {
+			stops.set(cell);
+		}
+
+		List<int[]> edges = new ArrayList<>();
+		List<Integer> joins = new ArrayList<>();
+		for (int cell : cells) {
+			if (!graph.isWalkable(cell)) addDeadEndEdges(cell, stops, joins, edges);
+		}
+
+		firstQueryNode = graph.getNodes();
+		queryCells = IntStream.concat(Arrays.stream(cells), joins.stream().mapToInt(Integer::intValue))
+				.toArray();
+
+		for (int cell : queryCells) {
+			if (graph.isWalkable(cell)) addCorridorEdges(cell, stops, edges);
+		}
+
+		queryEdgeCells = edges.toArray(new int[edges.size()][]);
+		queryEdgeSource = new int[queryEdgeCells.length];
+		queryEdgeTarget = new int[queryEdgeCells.length];
+		for (int edge = 0; edge < queryEdgeCells.length; edge++) {
+			int[] corridor = queryEdgeCells[edge];
+			// source is the cell before the first one, found by the way back
+			queryEdgeSource[edge] = nodeOf(queryEdgeCells[edge ^ 1][corridor.length - 1]);
+			queryEdgeTarget[edge] = nodeOf(corridor[corridor.length - 1]);
+		}
+
+		int nodes = firstQueryNode + queryCells.length;
+		g = new int[nodes];
+		parentEdge = new int[nodes];
+		Arrays.fill(g, Integer.MAX_VALUE);
+		Arrays.fill(parentEdge, -1);
+		visit = new IndexedHeap(nodes);
+		visitedAlready = new BitSet(nodes);
+		visitedAlreadySize = 0;
+
+		// starts on walls have no node
+		for (int start : startIndices) {
+			if (nodeOf(start) >= 0) relax(nodeOf(start), -1, -1, 0);
+		}
+
+		return nextCell();
+	}
+
+}
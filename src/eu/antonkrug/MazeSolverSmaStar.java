@@ -0,0 +1,505 @@
+package eu.antonkrug;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import utils.IndexedHeap;
+import utils.IntHashMap;
+
+/**
+ * Simplified memory-bounded A* (SMA*). Works as A*, but there is a hard limit
+ * of nodes which can be stored at once. Nodes are kept in int arrays (pool of
+ * the budget size), so memory is fixed when the solver is created and doesn't
+ * depend on maze size.
+ * 
+ * Each expansion generates only one successor, the best one which is not in
+ * memory yet. The node stays in the open list while it has more successors to
+ * generate, with F of the best of them, and leaves it when all are in memory.
+ * When the pool is full, the worst leaf (node without children with the
+ * highest F, the shallowest on ties) is forgotten, but never the node which is
+ * expanded. Its F is backed up into the parent and the parent is put back to
+ * the open list with this F, so the forgotten part of the search is not lost.
+ * If there is no leaf to forget (the memory holds only the starts and the
+ * path to the expanded node), the successors can't be ever stored on this
+ * path and they are dropped, so the search can't get stuck regenerating the
+ * same nodes. Best node is the one with the lowest F, the deepest on ties.
+ * Path is as short as A* path, if the budget is big enough to hold it together
+ * with all starts (cells from which the path can't fit are never generated).
+ * With budget much smaller than the explored area the same cells are forgotten
+ * and generated again many times, so the search still ends, but it can take
+ * far more steps than A*.
+ * 
+ * Each cell is held by one node at most. If a better path to a cell is found,
+ * the old node with its whole subtree is dropped.
+ * 
+ * getVisitSize() and getVisitedAlreadySize() are the nodes in memory (open and
+ * expanded), together they never go over the budget.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 1.1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeSolverSmaStar extends MazeSolverIndexBase {
+
+	public static final int	DEFAULT_NODE_BUDGET	= 1 << 20;
+
+	// node which is expanded right now, it can't be forgotten
+	private int							expanding;
+	// children of a node are double linked list
+	private int[]						firstChild;
+	// backed up F of each successor of each node, which was forgotten or can't
+	// be stored, 0 when it's not known
+	private int[]						forgotten;
+	private int[]						freeNodes;
+	private int							freeNodesSize;
+	private int[]						nextSibling;
+	private int[]						nodeCell;
+	// which node holds the cell
+	private IntHashMap			nodeOfCell;
+	private int[]						nodeF;
+	private int[]						nodeG;
+	private int[]						nodeParent;
+	private int							nodesUsed;
+	private int[]						previousSibling;
+	private IndexedHeap			visit;
+	// open leaves, the worst one is on the top, candidates to be forgotten
+	private IndexedHeap			worstLeaves;
+
+	/**
+	 * Constructor to initialise fields.
+	 * 
+	 * @param maze
+	 *          Reqiress to be give already loaded maze
+	 */
+	public MazeSolverSmaStar(Maze maze, Aproach implementationAproach) throws Exception {
+		this(maze, implementationAproach, DEFAULT_NODE_BUDGET);
+	}
+
+	/**
+	 * Constructor to initialise fields.
+	 * 
+	 * @param maze
+	 *          Reqiress to be give already loaded maze
+	 * @param nodeBudget
+	 *          most nodes which can be stored at once
+	 */
+	public MazeSolverSmaStar(Maze maze, Aproach implementationAproach, int nodeBudget)
+			throws Exception {
+		super(maze, implementationAproach);
+
+		switch (implementationAproach) {
+			case SMA_STAR:
+				break;
+
+			default:
+				throw new Exception("Usuported aproach " + implementationAproach
+						+ " called with this solver");
+		}
+
+		if (nodeBudget < 2) throw new Exception("Node budget " + nodeBudget + " is too small");
+
+		// there can't be more nodes than cells
+		int capacity = Math.min(nodeBudget, maze.getSize());
+
+		this.nodeCell = new int[capacity];
+		this.nodeF = new int[capacity];
+		this.nodeG = new int[capacity];
+		this.nodeParent = new int[capacity];
+		this.firstChild = new int[capacity];
+		this.nextSibling = new int[capacity];
+		this.previousSibling = new int[capacity];
+		this.forgotten = new int[capacity * neighbourOffsets.length];
+		this.freeNodes = new int[capacity];
+		this.freeNodesSize = 0;
+		this.nodesUsed = 0;
+		Arrays.fill(nodeCell, -1);
+
+		this.nodeOfCell = new IntHashMap(capacity);
+		this.expanding = -1;
+
+		// lowest F first, deeper on ties
+		this.visit = new IndexedHeap(capacity) {
+			@Override
+			protected boolean less(int item, int other) {
+				return nodeF[item] < nodeF[other]
+						|| (nodeF[item] == nodeF[other] && nodeG[item] > nodeG[other]);
+			}
+		};
+
+		// highest F first, shallower on ties
+		this.worstLeaves = new IndexedHeap(capacity) {
+			@Override
+			protected boolean less(int item, int other) {
+				return nodeF[item] > nodeF[other]
+						|| (nodeF[item] == nodeF[other] && nodeG[item] < nodeG[other]);
+			}
+		};
+
+		this.addStartingAndDestionationPositions();
+	}
+
+	/**
+	 * Will add starting position into maze, all starting positions are put into
+	 * open list with cost 0, so the one which gain the shortest path will win.
+	 * 
+	 * @param origin
+	 * @throws Exception
+	 *           If there is no destination present, or budget can't hold all
+	 *           starts it will throw exception
+	 */
+	@Override
+	public void addStartPosition(Point origin) throws Exception {
+		if (destinations.size() == 0)
+			throw new Exception("Before adding starts you have to set at least one destination!");
+
+		super.addStartPosition(origin);
+
+		int start = maze.getIndex(origin);
+		if (nodeOfCell.get(start) >= 0) return;
+
+		int node = allocateNode();
+		if (node < 0) throw new Exception("Node budget is too small for all starting positions");
+
+		createNode(node, start, -1, 0, heurestic(start));
+	}
+
+	/**
+	 * Get free node from the pool, if the pool is full the worst leaf is
+	 * forgotten
+	 * 
+	 * @return node or -1 if there is nothing to forget
+	 */
+	private int allocateNode() {
+		if (freeNodesSize == 0 && nodesUsed == nodeCell.length) {
+			int worst = worstLeaves.peek();
+			if (worst < 0) return -1;
+
+			forgetLeaf(worst);
+		}
+
+		if (freeNodesSize > 0) return freeNodes[--freeNodesSize];
+		return nodesUsed++;
+	}
+
+	/**
+	 * Will begin at the node of given cell and step back till starting point is
+	 * reached
+	 * 
+	 * @param index
+	 * @return
+	 */
+	@Override
+	protected int[] backTraceFromIndex(int index) {
+		IntStream.Builder path = IntStream.builder();
+
+		for (int node = nodeOfCell.get(index); node >= 0; node = nodeParent[node]) {
+			path.add(nodeCell[node]);
+		}
+		return path.build().toArray();
+	}
+
+	/**
+	 * Set up new node as open leaf
+	 * 
+	 * @param node
+	 * @param cell
+	 * @param parent
+	 * @param g
+	 * @param f
+	 */
+	private void createNode(int node, int cell, int parent, int g, int f) {
+		nodeCell[node] = cell;
+		nodeParent[node] = parent;
+		nodeG[node] = g;
+		nodeF[node] = f;
+		firstChild[node] = -1;
+		previousSibling[node] = -1;
+		nextSibling[node] = -1;
+		Arrays.fill(forgotten, node * neighbourOffsets.length, (node + 1)
+				* neighbourOffsets.length, 0);
+		nodeOfCell.put(cell, node);
+
+		if (parent >= 0) {
+			worstLeaves.remove(parent);
+
+			nextSibling[node] = firstChild[parent];
+			if (firstChild[parent] >= 0) previousSibling[firstChild[parent]] = node;
+			firstChild[parent] = node;
+
+			worstLeaves.push(node, f);
+		}
+		visit.push(node, f);
+	}
+
+	/**
+	 * Expands the best node by one successor, the best of those which are not in
+	 * memory with the same or better G. Node stays in the open list with F of the
+	 * next best successor, if there is any.
+	 * 
+	 * @param current
+	 * @return
+	 */
+	@Override
+	protected int doOneStep(int current) {
+		int node = nodeOfCell.get(current);
+
+		markNodeAsVisited(current);
+		expanding = node;
+
+		int g = nodeG[node] + 1;
+		int parentCell = nodeParent[node] < 0 ? -1 : nodeCell[nodeParent[node]];
+		int best = -1;
+		int bestF = Integer.MAX_VALUE;
+		int nextF = Integer.MAX_VALUE;
+
+		for (int direction = 0; direction < neighbourOffsets.length; direction++) {
+			int next = current + neighbourOffsets[direction];
+
+			if (next == parentCell || !maze.isWalkable(next)) continue;
+
+			// whole path has to be in memory together with the other starts, so
+			// path which will be this long can't be ever stored
+			int estimate = g + heurestic(next);
+			if (estimate > nodeCell.length - startIndices.length) continue;
+
+			// already a child, or reached by other path which is not worse
+			int existing = nodeOfCell.get(next);
+			if (existing >= 0 && nodeG[existing] <= g) continue;
+
+			int slot = node * neighbourOffsets.length + direction;
+			int f = Math.max(Math.max(nodeF[node], estimate), forgotten[slot]);
+			if (f == Integer.MAX_VALUE) continue;
+
+			if (f < bestF) {
+				nextF = bestF;
+				bestF = f;
+				best = direction;
+			} else {
+				nextF = Math.min(nextF, f);
+			}
+		}
+
+		if (best >= 0) {
+			int next = current + neighbourOffsets[best];
+			int existing = nodeOfCell.get(next);
+			if (existing >= 0) {
+				// better path was found, the old node and its subtree are not needed
+				int oldParent = nodeParent[existing];
+				freeSubtree(existing);
+				retireIfDead(oldParent);
+			}
+
+			int child = allocateNode();
+			if (child >= 0) {
+				createNode(child, next, node, g, bestF);
+			} else {
+				// nothing to forget, so no successor fits on this path
+				Arrays.fill(forgotten, node * neighbourOffsets.length, (node + 1)
+						* neighbourOffsets.length, Integer.MAX_VALUE);
+				nextF = Integer.MAX_VALUE;
+			}
+		}
+
+		expanding = -1;
+		reopen(node, nextF);
+
+		if (DEBUG) System.out.println(visit.peek());
+		return visit.isEmpty() ? -1 : nodeCell[visit.peek()];
+	}
+
+	/**
+	 * Forget open leaf, its F is backed up to the parent which is put back to
+	 * the open list
+	 * 
+	 * @param leaf
+	 */
+	private void forgetLeaf(int leaf) {
+		int parent = nodeParent[leaf];
+		int f = nodeF[leaf];
+
+		forgotten[slotOf(parent, nodeCell[leaf])] = f;
+		freeNode(leaf);
+		reopen(parent, f);
+	}
+
+	/**
+	 * Return node to the pool
+	 * 
+	 * @param node
+	 */
+	private void freeNode(int node) {
+		int parent = nodeParent[node];
+
+		visit.remove(node);
+		worstLeaves.remove(node);
+		nodeOfCell.remove(nodeCell[node]);
+		nodeCell[node] = -1;
+		freeNodes[freeNodesSize++] = node;
+
+		if (parent >= 0) {
+			if (previousSibling[node] >= 0) {
+				nextSibling[previousSibling[node]] = nextSibling[node];
+			} else {
+				firstChild[parent] = nextSibling[node];
+			}
+			if (nextSibling[node] >= 0) previousSibling[nextSibling[node]] = previousSibling[node];
+
+			// parent which is waiting in the open list became leaf
+			if (firstChild[parent] < 0 && visit.contains(parent) && nodeParent[parent] >= 0
+					&& parent != expanding) worstLeaves.push(parent, nodeF[parent]);
+		}
+	}
+
+	/**
+	 * Free the node with all its descendants, leaves first
+	 * 
+	 * @param root
+	 */
+	private void freeSubtree(int root) {
+		int node = root;
+
+		while (true) {
+			while (firstChild[node] >= 0) {
+				node = firstChild[node];
+			}
+
+			int parent = nodeParent[node];
+			freeNode(node);
+
+			if (node == root) break;
+			node = parent;
+		}
+	}
+
+	/**
+	 * Returns open list as cell indexes
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitIndices() {
+		return visit.stream().map(node -> nodeCell[node]);
+	}
+
+	/**
+	 * Returns expanded nodes which are still in memory as cell indexes
+	 * 
+	 * @return
+	 */
+	@Override
+	public IntStream getVisitedAlreadyIndices() {
+		return IntStream.range(0, nodesUsed).filter(node -> nodeCell[node] >= 0 && !visit.contains(node))
+				.map(node -> nodeCell[node]);
+	}
+
+	@Override
+	public int getVisitedAlreadySize() {
+		return nodesUsed - freeNodesSize - visit.size();
+	}
+
+	@Override
+	public int getVisitSize() {
+		return visit.size();
+	}
+
+	/**
+	 * Distances for the whole maze would defeat the bounded memory, heurestic
+	 * loops over the destinations instead
+	 * 
+	 * @return
+	 */
+	@Override
+	protected boolean isHeuresticPrecomputed() {
+		return false;
+	}
+
+	/**
+	 * Remove node of the cell from open list
+	 * 
+	 * @param index
+	 */
+	@Override
+	protected void markNodeAsVisited(int index) {
+		int node = nodeOfCell.get(index);
+		if (node < 0) return;
+
+		visit.remove(node);
+		worstLeaves.remove(node);
+	}
+
+	/**
+	 * Put node back to open list, when some of its successors are not in memory
+	 * anymore, or weren't generated yet. F of the node is the lowest F of them.
+	 * 
+	 * @param node
+	 * @param f
+	 *          F of the successor, Integer.MAX_VALUE when there is none
+	 */
+	private void reopen(int node, int f) {
+		if (f == Integer.MAX_VALUE || (visit.contains(node) && nodeF[node] <= f)) {
+			retireIfDead(node);
+			return;
+		}
+
+		// nodes are ordered by their F, so they have to be inserted again
+		visit.remove(node);
+		worstLeaves.remove(node);
+		nodeF[node] = f;
+		visit.push(node, f);
+
+		if (firstChild[node] < 0 && nodeParent[node] >= 0 && node != expanding)
+			worstLeaves.push(node, f);
+	}
+
+	/**
+	 * Expanded node without children and without anything forgotten has nothing
+	 * to explore anymore. It's kept in memory as closed cell, but it's the first
+	 * one to be forgotten when the pool is full.
+	 * 
+	 * @param node
+	 */
+	private void retireIfDead(int node) {
+		if (node < 0 || node == expanding || firstChild[node] >= 0 || visit.contains(node)) return;
+
+		worstLeaves.remove(node);
+		nodeF[node] = Integer.MAX_VALUE;
+		if (nodeParent[node] >= 0) worstLeaves.push(node, nodeF[node]);
+	}
+
+	/**
+	 * Slot of the successor in the forgotten F array
+	 * 
+	 * @param node
+	 * @param cell
+	 *          cell of the successor
+	 * @return
+	 */
+	private int slotOf(int node, int cell) {
+		int offset = cell - nodeCell[node];
+
+		int direction = 0;
+		while (neighbourOffsets[direction] != offset) {
+			direction++;
+		}
+		return node * neighbourOffsets.length + direction;
+	}
+
+	/**
+	 * First step is the best node from the open list
+	 * 
+	 * @return
+	 */
+	@Override
+	protected int solveStepFirst() {
+		return visit.isEmpty() ? -1 : nodeCell[visit.peek()];
+	}
+
+}
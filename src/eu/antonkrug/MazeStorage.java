@@ -0,0 +1,63 @@
+package eu.antonkrug;
+
+/**
+ * Backend which holds the raw cell codes of a maze. Cells are addressed by
+ * their coordinates, each cell is one byte (see Maze.Block.getCode()).
+ * 
+ * Small mazes are kept inside the heap, but mazes which are bigger than the
+ * heap can be held by tiled backend which is backed by memory mapped file.
+ * 
+ * @author agent
+ * @date 2026/10/17
+ * @version 1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public interface MazeStorage extends AutoCloseable {
+
+	/**
+	 * Release everything the backend holds outside of the heap, the storage
+	 * can't be used after this
+	 */
+	@Override
+	public void close();
+
+	/**
+	 * Set every cell to given code
+	 * 
+	 * @param cell
+	 */
+	public void fill(byte cell);
+
+	/**
+	 * Get code of the cell on given position
+	 * 
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	public byte get(int x, int y);
+
+	/**
+	 * Get code of the cell by its row-major index (y * width + x)
+	 * 
+	 * @param index
+	 * @return
+	 */
+	public byte get(int index);
+
+	/**
+	 * Store code of the cell on given position
+	 * 
+	 * @param x
+	 * @param y
+	 * @param cell
+	 */
+	public void set(int x, int y, byte cell);
+
+}
@@ -0,0 +1,63 @@
+package eu.antonkrug;
+
+import java.util.Arrays;
+
+/**
+ * In heap backend, one byte per cell in single flat row-major array, index = y
+ * * width + x
+ * 
+ * @author agent
+ * @date 2026/10/17
+ * @version 1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeStorageArray implements MazeStorage {
+
+	private final byte[]	cells;
+	private final int			width;
+
+	/**
+	 * Allocate all cells at once, all of them will be unset (code 0)
+	 * 
+	 * @param width
+	 * @param height
+	 */
+	public MazeStorageArray(int width, int height) {
+		this.width = width;
+		this.cells = new byte[width * height];
+	}
+
+	/**
+	 * Nothing to release, the array is collected by GC
+	 */
+	@Override
+	public void close() {
+	}
+
+	@Override
+	public void fill(byte cell) {
+		Arrays.fill(cells, cell);
+	}
+
+	@Override
+	public byte get(int x, int y) {
+		return cells[y * width + x];
+	}
+
+	@Override
+	public byte get(int index) {
+		return cells[index];
+	}
+
+	@Override
+	public void set(int x, int y, byte cell) {
+		cells[y * width + x] = cell;
+	}
+
+}
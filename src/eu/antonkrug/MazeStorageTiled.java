@@ -0,0 +1,168 @@
+package eu.antonkrug;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * Backend for mazes bigger than the heap. Maze is split into fixed size square
+ * tiles, each tile is stored continuously inside a temporary file, so when
+ * solver is exploring small area it will touch just few pages. The file is
+ * memory mapped in few big segments when the storage is created (maze has
+ * less than 2^31 cells, so there are at most 3 segments) and OS pages the
+ * tiles in and out as they are touched.
+ * 
+ * The mapping never changes after that and cells are read and written by
+ * absolute positions, so no lock is needed: loader threads can write their
+ * rows and solver threads can read at the same time.
+ * 
+ * @author agent
+ * @date 2026/10/17
+ * @version 1.1
+ * @requires Java 8!
+ */
+
+/*
+ * Copyright (C) Anton Krug - All Rights Reserved Unauthorized copying of this
+ * file, via any medium is strictly prohibited Proprietary and confidential
+ * Written by agent <agent@local>, October 2026
+ */
+public class MazeStorageTiled implements MazeStorage {
+
+	// 256x256 tile is 64KB which is multiple of any page size used by OS
+	private static final int						TILE_SHIFT			= 8;
+	private static final int						TILE_SIZE				= 1 << TILE_SHIFT;
+	private static final int						TILE_MASK				= TILE_SIZE - 1;
+	private static final int						TILE_BYTES			= TILE_SIZE * TILE_SIZE;
+
+	// 16384 tiles is 1GB segment, one mapping can't be bigger than 2GB
+	private static final int						SEGMENT_SHIFT		= 14;
+	private static final int						SEGMENT_MASK		= (1 << SEGMENT_SHIFT) - 1;
+
+	private final FileChannel						channel;
+	private final File									file;
+	private final RandomAccessFile			raf;
+	// null after close()
+	private volatile MappedByteBuffer[]	segments;
+	private final long									tiles;
+	private final int										tilesPerRow;
+	private final int										width;
+
+	/**
+	 * Create temporary file big enough for all tiles and map it, all cells will
+	 * be unset (code 0) as the file is created sparse and full of zeros
+	 * 
+	 * @param width
+	 * @param height
+	 * @throws IOException
+	 */
+	public MazeStorageTiled(int width, int height) throws IOException {
+		this.width = width;
+		this.tilesPerRow = (width + TILE_SIZE - 1) >> TILE_SHIFT;
+		long tilesPerColumn = (height + TILE_SIZE - 1) >> TILE_SHIFT;
+		this.tiles = tilesPerColumn * tilesPerRow;
+
+		// deleted by close(), on exit only when the maze wasn't closed
+		this.file = File.createTempFile("maze", ".tiles");
+		file.deleteOnExit();
+
+		this.raf = new RandomAccessFile(file, "rw");
+		raf.setLength(tiles * TILE_BYTES);
+		this.channel = raf.getChannel();
+
+		int count = (int) ((tiles + SEGMENT_MASK) >> SEGMENT_SHIFT);
+		MappedByteBuffer[] mapping = new MappedByteBuffer[count];
+		for (int segment = 0; segment < count; segment++) {
+			long first = (long) segment << SEGMENT_SHIFT;
+			long bytes = Math.min(tiles - first, 1 << SEGMENT_SHIFT) * TILE_BYTES;
+			mapping[segment] = channel.map(MapMode.READ_WRITE, first * TILE_BYTES, bytes);
+		}
+		this.segments = mapping;
+	}
+
+	/**
+	 * Drop the mapping, close the file and delete it
+	 */
+	@Override
+	public synchronized void close() {
+		// buffers are unmapped when GC collects them
+		segments = null;
+
+		try {
+			raf.close();
+		} catch (IOException closeException) {
+			// the file is deleted anyway
+		}
+		file.delete();
+	}
+
+	@Override
+	public void fill(byte cell) {
+		MappedByteBuffer[] mapping = mapping();
+
+		for (MappedByteBuffer segment : mapping) {
+			for (int index = 0; index < segment.capacity(); index++) {
+				segment.put(index, cell);
+			}
+		}
+	}
+
+	@Override
+	public byte get(int x, int y) {
+		long tile = tileOf(x, y);
+
+		return mapping()[(int) (tile >> SEGMENT_SHIFT)].get(offsetOf(tile, x, y));
+	}
+
+	@Override
+	public byte get(int index) {
+		return get(index % width, index / width);
+	}
+
+	@Override
+	public void set(int x, int y, byte cell) {
+		long tile = tileOf(x, y);
+
+		mapping()[(int) (tile >> SEGMENT_SHIFT)].put(offsetOf(tile, x, y), cell);
+	}
+
+	/**
+	 * @return the mapped segments
+	 * @throws IllegalStateException
+	 *           When the storage is closed already
+	 */
+	private MappedByteBuffer[] mapping() {
+		MappedByteBuffer[] mapping = segments;
+		if (mapping == null) throw new IllegalStateException("Storage of the maze is closed");
+
+		return mapping;
+	}
+
+	/**
+	 * Offset of the cell inside its segment
+	 * 
+	 * @param tile
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	private int offsetOf(long tile, int x, int y) {
+		return (int) (tile & SEGMENT_MASK) * TILE_BYTES
+				+ (((y & TILE_MASK) << TILE_SHIFT) | (x & TILE_MASK));
+	}
+
+	/**
+	 * Tile containing given cell
+	 * 
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	private long tileOf(int x, int y) {
+		return (long) (y >> TILE_SHIFT) * tilesPerRow + (x >> TILE_SHIFT);
+	}
+
+}
@@ -9,6 +9,10 @@ import utils.Agenda;
 import utils.AgendaJdk;
 import utils.AgendaQueue;
 import utils.AgendaStack;
+import utils.BucketQueue;
+import utils.IndexedHeap;
+import utils.IntHashMap;
+import utils.WeightedCache;
 import utils.AgendaJdk.Function;
 
 
@@ -232,4 +236,139 @@ public class AgendaTest {
 		addRemoveObjectAgenda(queue);
 	}
 
+	@Test
+	public void indexedHeapTest() {
+		IndexedHeap heap = new IndexedHeap(10);
+
+		heap.push(3, 30);
+		heap.push(5, 10);
+		heap.push(7, 20);
+		heap.push(1, 40);
+
+		assertEquals(4, heap.size());
+		assertTrue(heap.contains(7));
+		assertFalse(heap.contains(2));
+		assertEquals(5, heap.peek());
+
+		// decrease key moves the item to the top without duplicating it
+		heap.push(1, 5);
+		assertEquals(4, heap.size());
+		assertEquals(1, heap.peek());
+
+		heap.remove(7);
+		assertFalse(heap.contains(7));
+
+		assertEquals(1, heap.pop());
+		assertEquals(5, heap.pop());
+		assertEquals(3, heap.pop());
+		assertTrue(heap.isEmpty());
+		assertEquals(-1, heap.pop());
+	}
+
+	@Test
+	public void bucketQueueTest() {
+		BucketQueue queue = new BucketQueue(10);
+
+		queue.push(3, 4);
+		queue.push(5, 2);
+		queue.push(7, 2);
+		queue.push(1, 40);
+
+		assertEquals(4, queue.size());
+		assertTrue(queue.contains(1));
+		assertFalse(queue.contains(2));
+
+		// on ties the last added is first
+		assertEquals(7, queue.peek());
+
+		// decrease key moves the item into another bucket without duplicating it
+		queue.push(1, 0);
+		assertEquals(4, queue.size());
+		assertEquals(4, queue.stream().count());
+		assertEquals(1, queue.peek());
+
+		queue.remove(7);
+		assertFalse(queue.contains(7));
+
+		assertEquals(1, queue.pop());
+		assertEquals(5, queue.pop());
+		assertEquals(3, queue.pop());
+		assertTrue(queue.isEmpty());
+		assertEquals(-1, queue.pop());
+	}
+
+	@Test
+	public void bucketQueueTieTest() {
+		BucketQueue queue = new BucketQueue(10);
+
+		// deeper node of other branch is in the bucket before the last pushed one
+		queue.push(2, 6, 5);
+		queue.push(4, 6, 3);
+		queue.push(6, 6, 1);
+		queue.push(8, 5, 0);
+		assertEquals(4, queue.stream().count());
+
+		assertEquals(8, queue.pop());
+		assertEquals(2, queue.pop());
+
+		// moving to higher tie of the same key
+		queue.push(6, 6, 4);
+		assertEquals(2, queue.size());
+		assertEquals(6, queue.pop());
+		assertEquals(4, queue.pop());
+		assertTrue(queue.isEmpty());
+		assertEquals(-1, queue.peek());
+	}
+
+	@Test
+	public void intHashMapTest() {
+		IntHashMap map = new IntHashMap(100);
+
+		for (int key = 0; key < 100; key++) {
+			map.put(key * 1024, key);
+		}
+		assertEquals(100, map.size());
+		assertEquals(7, map.get(7 * 1024));
+		assertEquals(-1, map.get(5));
+
+		// removing has to keep all other keys reachable
+		for (int key = 0; key < 100; key += 2) {
+			map.remove(key * 1024);
+		}
+		assertEquals(50, map.size());
+		for (int key = 0; key < 100; key++) {
+			assertEquals(key % 2 == 0 ? -1 : key, map.get(key * 1024));
+		}
+
+		map.put(3 * 1024, 42);
+		assertEquals(42, map.get(3 * 1024));
+		assertEquals(50, map.size());
+	}
+
+	@Test
+	public void weightedCacheTest() {
+		WeightedCache<Integer, int[]> cache = new WeightedCache<>(100, value -> value.length);
+
+		int[] first = cache.get(1, key -> new int[40]);
+		assertSame(first, cache.get(1, key -> new int[40]));
+		cache.get(2, key -> new int[40]);
+		assertEquals(80, cache.getWeight());
+
+		// 1 was used last, so 2 is evicted
+		cache.get(1, key -> new int[40]);
+		cache.get(3, key -> new int[40]);
+		assertEquals(2, cache.size());
+		assertEquals(80, cache.getWeight());
+		assertSame(first, cache.get(1, key -> new int[40]));
+
+		// value bigger than the limit is kept alone
+		int[] huge = cache.get(4, key -> new int[500]);
+		assertEquals(1, cache.size());
+		assertSame(huge, cache.get(4, key -> new int[500]));
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getWeight());
+	}
+
 }
@@ -12,6 +12,7 @@ import eu.antonkrug.MazeSolver.Aproach;
 import eu.antonkrug.MazeSolverAStar;
 import eu.antonkrug.MazeSolverBfs;
 import eu.antonkrug.MazeSolverDfs;
+import eu.antonkrug.MazeSolverFactory;
 
 /**
  * @author Anton Krug
@@ -177,7 +178,7 @@ public class MazeSolverBenchmark {
 					break;
 
 				default:
-					solver = new MazeSolverAStar(maze, implementationAproach);
+					solver = MazeSolverFactory.getSolver(maze, implementationAproach);
 					break;
 			}
 			solver.solvePath();
@@ -238,6 +239,149 @@ public class MazeSolverBenchmark {
 		aStarAproaches(Aproach.ASTAR_HASHMAP);
 	}
 
+	@Test
+	public void binaryHeap() throws Exception {
+		aStarAproaches(Aproach.ASTAR_BINARY_HEAP);
+		loadMaze("2");
+		aStarAproaches(Aproach.ASTAR_BINARY_HEAP);
+		loadMaze("3");
+		aStarAproaches(Aproach.ASTAR_BINARY_HEAP);
+		loadMaze("4");
+		aStarAproaches(Aproach.ASTAR_BINARY_HEAP);
+		loadMaze("5");
+		aStarAproaches(Aproach.ASTAR_BINARY_HEAP);
+	}
+
+	@Test
+	public void bucketQueue() throws Exception {
+		aStarAproaches(Aproach.ASTAR_BUCKET_QUEUE);
+		loadMaze("2");
+		aStarAproaches(Aproach.ASTAR_BUCKET_QUEUE);
+		loadMaze("3");
+		aStarAproaches(Aproach.ASTAR_BUCKET_QUEUE);
+		loadMaze("4");
+		aStarAproaches(Aproach.ASTAR_BUCKET_QUEUE);
+		loadMaze("5");
+		aStarAproaches(Aproach.ASTAR_BUCKET_QUEUE);
+	}
+
+	@Test
+	public void jumpPointSearch() throws Exception {
+		aStarAproaches(Aproach.JPS);
+		loadMaze("2");
+		aStarAproaches(Aproach.JPS);
+		loadMaze("3");
+		aStarAproaches(Aproach.JPS);
+		loadMaze("4");
+		aStarAproaches(Aproach.JPS);
+		loadMaze("5");
+		aStarAproaches(Aproach.JPS);
+	}
+
+	@Test
+	public void bfsBidirectional() throws Exception {
+		aStarAproaches(Aproach.BFS_BIDIRECTIONAL);
+		loadMaze("2");
+		aStarAproaches(Aproach.BFS_BIDIRECTIONAL);
+		loadMaze("3");
+		aStarAproaches(Aproach.BFS_BIDIRECTIONAL);
+		loadMaze("4");
+		aStarAproaches(Aproach.BFS_BIDIRECTIONAL);
+		loadMaze("5");
+		aStarAproaches(Aproach.BFS_BIDIRECTIONAL);
+	}
+
+	@Test
+	public void aStarBidirectional() throws Exception {
+		aStarAproaches(Aproach.ASTAR_BIDIRECTIONAL);
+		loadMaze("2");
+		aStarAproaches(Aproach.ASTAR_BIDIRECTIONAL);
+		loadMaze("3");
+		aStarAproaches(Aproach.ASTAR_BIDIRECTIONAL);
+		loadMaze("4");
+		aStarAproaches(Aproach.ASTAR_BIDIRECTIONAL);
+		loadMaze("5");
+		aStarAproaches(Aproach.ASTAR_BIDIRECTIONAL);
+	}
+
+	@Test
+	public void idaStar() throws Exception {
+		aStarAproaches(Aproach.IDA_STAR);
+		loadMaze("2");
+		aStarAproaches(Aproach.IDA_STAR);
+		loadMaze("3");
+		aStarAproaches(Aproach.IDA_STAR);
+		loadMaze("4");
+		aStarAproaches(Aproach.IDA_STAR);
+		loadMaze("5");
+		aStarAproaches(Aproach.IDA_STAR);
+	}
+
+	@Test
+	public void smaStar() throws Exception {
+		aStarAproaches(Aproach.SMA_STAR);
+		loadMaze("2");
+		aStarAproaches(Aproach.SMA_STAR);
+		loadMaze("3");
+		aStarAproaches(Aproach.SMA_STAR);
+		loadMaze("4");
+		aStarAproaches(Aproach.SMA_STAR);
+		loadMaze("5");
+		aStarAproaches(Aproach.SMA_STAR);
+	}
+
+	@Test
+	public void dStarLite() throws Exception {
+		aStarAproaches(Aproach.DSTAR_LITE);
+		loadMaze("2");
+		aStarAproaches(Aproach.DSTAR_LITE);
+		loadMaze("3");
+		aStarAproaches(Aproach.DSTAR_LITE);
+		loadMaze("4");
+		aStarAproaches(Aproach.DSTAR_LITE);
+		loadMaze("5");
+		aStarAproaches(Aproach.DSTAR_LITE);
+	}
+
+	@Test
+	public void junctionGraph() throws Exception {
+		aStarAproaches(Aproach.JUNCTION_GRAPH);
+		loadMaze("2");
+		aStarAproaches(Aproach.JUNCTION_GRAPH);
+		loadMaze("3");
+		aStarAproaches(Aproach.JUNCTION_GRAPH);
+		loadMaze("4");
+		aStarAproaches(Aproach.JUNCTION_GRAPH);
+		loadMaze("5");
+		aStarAproaches(Aproach.JUNCTION_GRAPH);
+	}
+
+	@Test
+	public void hpaStar() throws Exception {
+		aStarAproaches(Aproach.HPA_STAR);
+		loadMaze("2");
+		aStarAproaches(Aproach.HPA_STAR);
+		loadMaze("3");
+		aStarAproaches(Aproach.HPA_STAR);
+		loadMaze("4");
+		aStarAproaches(Aproach.HPA_STAR);
+		loadMaze("5");
+		aStarAproaches(Aproach.HPA_STAR);
+	}
+
+	@Test
+	public void aStarLandmarks() throws Exception {
+		aStarAproaches(Aproach.ASTAR_LANDMARKS);
+		loadMaze("2");
+		aStarAproaches(Aproach.ASTAR_LANDMARKS);
+		loadMaze("3");
+		aStarAproaches(Aproach.ASTAR_LANDMARKS);
+		loadMaze("4");
+		aStarAproaches(Aproach.ASTAR_LANDMARKS);
+		loadMaze("5");
+		aStarAproaches(Aproach.ASTAR_LANDMARKS);
+	}
+
 	@Test
 	public void bfsMine() throws Exception {
 		aStarAproaches(Aproach.BFS_QUEUE_MINE);
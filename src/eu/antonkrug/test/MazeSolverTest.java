@@ -10,6 +10,8 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.imageio.ImageIO;
 
@@ -18,6 +20,7 @@ import org.junit.Test;
 
 import eu.antonkrug.*;
 import eu.antonkrug.MazeSolver.Aproach;
+import utils.Pair;
 
 /**
  * Tester for all solvers
@@ -318,4 +321,602 @@ public class MazeSolverTest {
 	// solveAll();
 	// }
 
+	// all mazes which are solved in reasonable time
+	private static final List<String>	TEST_MAZES	= Arrays.asList("tiny", "noSolution",
+			"noBorder", "noStartOrDestination", "openSpace", "hard55x37", "hard62x150", "smallSimple",
+			"mediumSimple", "benchmark1", "benchmark2", "benchmark3", "benchmark4", "benchmark5");
+
+	/**
+	 * Optimal solvers have to find as short path as the ASTAR_HASHMAP one, and
+	 * the path has to be continuous and walkable from destination to start.
+	 * 
+	 * @param aproach
+	 * @throws Exception
+	 */
+	private void validateOptimal(Aproach aproach) throws Exception {
+		validatePaths(aproach, true);
+	}
+
+	/**
+	 * HPA* path can be longer than the shortest one by CLUSTER_SIZE - 2 steps
+	 * for each cluster border the shortest path crosses
+	 * 
+	 * @param shortest
+	 * @return
+	 */
+	private static int hpaStarLongestPath(List<Point> shortest) {
+		int crossings = 0;
+		for (int index = 1; index < shortest.size(); index++) {
+			Point point = shortest.get(index);
+			Point previous = shortest.get(index - 1);
+			if (point.x / MazeClusterGraph.CLUSTER_SIZE != previous.x / MazeClusterGraph.CLUSTER_SIZE
+					|| point.y / MazeClusterGraph.CLUSTER_SIZE != previous.y / MazeClusterGraph.CLUSTER_SIZE)
+				crossings++;
+		}
+		return shortest.size() + crossings * (MazeClusterGraph.CLUSTER_SIZE - 2);
+	}
+
+	/**
+	 * Path has to be found when there is one, it has to be continuous and
+	 * walkable from destination to start, and as short as the ASTAR_HASHMAP one
+	 * when exact, or within the bound of HPA* otherwise.
+	 * 
+	 * @param aproach
+	 * @param exact
+	 * @throws Exception
+	 */
+	private void validatePaths(Aproach aproach, boolean exact) throws Exception {
+		for (String mazeName : TEST_MAZES) {
+			maze = new Maze();
+			loadMaze("./testMazes/" + mazeName + ".maze");
+
+			MazeSolver reference = MazeSolverFactory.getSolver(maze, Aproach.ASTAR_HASHMAP);
+			solver = MazeSolverFactory.getSolver(maze, aproach);
+
+			reference.solvePath();
+			int iterations = solver.solvePath();
+
+			List<Point> expected = reference.backTracePath();
+			List<Point> path = solver.backTracePath();
+
+			if (expected == null) {
+				assertEquals(mazeName, -1, iterations);
+				assertNull(mazeName, path);
+				continue;
+			}
+
+			assertNotNull(mazeName, path);
+			if (exact) {
+				assertEquals(mazeName, expected.size(), path.size());
+			} else {
+				assertTrue(mazeName, path.size() >= expected.size());
+				assertTrue(mazeName, path.size() <= hpaStarLongestPath(expected));
+			}
+			assertTrue(mazeName, solver.getDestinations().contains(path.get(0)));
+			assertEquals(mazeName, Maze.Block.START, maze.getBlock(path.get(path.size() - 1)));
+
+			for (int index = 1; index < path.size(); index++) {
+				assertTrue(mazeName, maze.canWalkTo(path.get(index)));
+				assertEquals(mazeName, 1, path.get(index).distance(path.get(index - 1)), 0);
+			}
+		}
+	}
+
+	@Test
+	public void binaryHeapTest() throws Exception {
+		validateOptimal(Aproach.ASTAR_BINARY_HEAP);
+	}
+
+	@Test
+	public void bucketQueueTest() throws Exception {
+		validateOptimal(Aproach.ASTAR_BUCKET_QUEUE);
+	}
+
+	@Test
+	public void jumpPointSearchTest() throws Exception {
+		validateOptimal(Aproach.JPS);
+	}
+
+	@Test
+	public void bfsBidirectionalTest() throws Exception {
+		validateOptimal(Aproach.BFS_BIDIRECTIONAL);
+	}
+
+	@Test
+	public void aStarBidirectionalTest() throws Exception {
+		validateOptimal(Aproach.ASTAR_BIDIRECTIONAL);
+	}
+
+	@Test
+	public void idaStarTest() throws Exception {
+		validateOptimal(Aproach.IDA_STAR);
+	}
+
+	@Test
+	public void idaStarNoTranspositionTableTest() throws Exception {
+		loadMaze("./testMazes/tiny.maze");
+
+		MazeSolver reference = MazeSolverFactory.getSolver(maze, Aproach.ASTAR_BINARY_HEAP);
+		solver = new MazeSolverIdaStar(maze, Aproach.IDA_STAR, 0);
+
+		reference.solvePath();
+		assertTrue(solver.solvePath() > 0);
+		assertEquals(reference.backTracePath().size(), solver.backTracePath().size());
+	}
+
+	@Test
+	public void cancelTest() throws Exception {
+		loadMaze("./testMazes/hard62x150.maze");
+
+		solver = MazeSolverFactory.getSolver(maze, Aproach.IDA_STAR);
+		solver.cancel();
+		assertEquals(-1, solver.solvePath());
+		assertNull(solver.backTracePath());
+	}
+
+	@Test
+	public void smaStarTest() throws Exception {
+		validateOptimal(Aproach.SMA_STAR);
+	}
+
+	@Test
+	public void smaStarBudgetTest() throws Exception {
+		loadMaze("./testMazes/hard62x150.maze");
+
+		MazeSolver reference = MazeSolverFactory.getSolver(maze, Aproach.ASTAR_BINARY_HEAP);
+		reference.solvePath();
+
+		// A* needs more than 4000 nodes for this maze
+		solver = new MazeSolverSmaStar(maze, Aproach.SMA_STAR, 600);
+		assertEquals(0, solver.solveStepInit());
+		while (solver.solveStepCondition()) {
+			solver.solveStepOneIteration();
+			assertTrue(solver.getVisitSize() + solver.getVisitedAlreadySize() <= 600);
+		}
+		assertEquals(0, solver.solveStepFinish());
+		assertEquals(reference.backTracePath().size(), solver.backTracePath().size());
+	}
+
+	@Test
+	public void smaStarTightBudgetTest() throws Exception {
+		for (String mazeName : new String[] { "tiny", "benchmark3" }) {
+			maze = new Maze();
+			loadMaze("./testMazes/" + mazeName + ".maze");
+
+			MazeSolver reference = MazeSolverFactory.getSolver(maze, Aproach.BFS_QUEUE_MINE);
+			reference.solvePath();
+			int length = reference.backTracePath().size();
+
+			// all starts stay in memory together with the whole path
+			int budget = length + maze.getAllBlock(Maze.Block.START).size() - 1;
+
+			solver = new MazeSolverSmaStar(maze, Aproach.SMA_STAR, budget);
+			assertTrue(mazeName, solver.solvePath() > 0);
+			assertEquals(mazeName, length, solver.backTracePath().size());
+
+			solver = new MazeSolverSmaStar(maze, Aproach.SMA_STAR, budget - 1);
+			assertEquals(mazeName, -1, solver.solvePath());
+			assertNull(mazeName, solver.backTracePath());
+		}
+	}
+
+	@Test
+	public void smaStarTightBudgetStartsTest() throws Exception {
+		// three starts, the path from the closest one has 3 cells
+		maze = new Maze();
+		maze.setWidth(7);
+		maze.setHeight(5);
+		maze.initialize();
+		for (int y = 1; y < 4; y++) {
+			for (int x = 1; x < 6; x++) {
+				maze.addWalkablePath(new Point(x, y));
+			}
+		}
+		maze.addStart(new Point(1, 1));
+		maze.addStart(new Point(5, 3));
+		maze.addStart(new Point(1, 3));
+		maze.addFinish(new Point(3, 3));
+
+		solver = new MazeSolverSmaStar(maze, Aproach.SMA_STAR, 5);
+		assertTrue(solver.solvePath() > 0);
+		assertEquals(3, solver.backTracePath().size());
+
+		solver = new MazeSolverSmaStar(maze, Aproach.SMA_STAR, 4);
+		assertEquals(-1, solver.solvePath());
+	}
+
+	@Test
+	public void dStarLiteTest() throws Exception {
+		validateOptimal(Aproach.DSTAR_LITE);
+	}
+
+	@Test
+	public void dStarLiteReplanTest() throws Exception {
+		loadMaze("./testMazes/openSpace.maze");
+
+		MazeSolverDStarLite dStarLite = new MazeSolverDStarLite(maze, Aproach.DSTAR_LITE);
+		int firstIterations = dStarLite.solvePath();
+		List<Point> path = dStarLite.backTracePath();
+		Point blocked = path.get(path.size() / 2);
+
+		maze.addWall(blocked);
+		dStarLite.cellChanged(blocked);
+		int replanIterations = dStarLite.replan();
+
+		MazeSolver reference = MazeSolverFactory.getSolver(maze, Aproach.ASTAR_BINARY_HEAP);
+		reference.solvePath();
+		List<Point> detour = dStarLite.backTracePath();
+
+		assertTrue(replanIterations > 0);
+		assertTrue(replanIterations < firstIterations);
+		assertEquals(reference.backTracePath().size(), detour.size());
+		assertFalse(detour.contains(blocked));
+
+		maze.addWalkablePath(blocked);
+		dStarLite.cellChanged(blocked);
+		assertTrue(dStarLite.replan() >= 0);
+		assertEquals(path.size(), dStarLite.backTracePath().size());
+	}
+
+	@Test
+	public void componentLabellingTest() throws Exception {
+		loadMaze("./testMazes/benchmark4.maze");
+		maze.setComponentLabelling(true);
+
+		for (Aproach aproach : Aproach.values()) {
+			solver = MazeSolverFactory.getSolver(maze, aproach);
+
+			assertEquals(aproach.toString(), -1, solver.solvePath());
+			assertNull(aproach.toString(), solver.backTracePath());
+			assertEquals(aproach.toString(), 0, solver.getVisitedAlreadySize());
+		}
+
+		// labels are refreshed after the maze is changed
+		loadMaze("./testMazes/tiny.maze");
+		assertTrue(MazeSolverFactory.getSolver(maze, Aproach.ASTAR_BINARY_HEAP).solvePath() > 0);
+	}
+
+	@Test
+	public void deadEndsFilledTest() throws Exception {
+		for (String mazeName : TEST_MAZES) {
+			maze = new Maze();
+			loadMaze("./testMazes/" + mazeName + ".maze");
+
+			MazeSolver reference = MazeSolverFactory.getSolver(maze, Aproach.BFS_QUEUE_MINE);
+			solver = MazeSolverFactory.getSolver(maze.getDeadEndsFilled(), Aproach.BFS_QUEUE_MINE);
+
+			reference.solvePath();
+			solver.solvePath();
+
+			if (reference.backTracePath() == null) {
+				assertNull(mazeName, solver.backTracePath());
+				continue;
+			}
+			assertEquals(mazeName, reference.backTracePath().size(), solver.backTracePath().size());
+			assertTrue(mazeName, solver.getVisitedAlreadySize() <= reference.getVisitedAlreadySize());
+		}
+	}
+
+	@Test
+	public void junctionGraphTest() throws Exception {
+		validateOptimal(Aproach.JUNCTION_GRAPH);
+	}
+
+	@Test
+	public void junctionGraphCorridorTest() throws Exception {
+		loadMaze("./testMazes/hard62x150.maze");
+		for (Point start : maze.getAllBlock(Maze.Block.START)) {
+			maze.addWalkablePath(start);
+		}
+		MazeGraph graph = maze.getJunctionGraph();
+
+		// cells in the middle of corridors, they are not nodes of the graph
+		List<Point> corridors = new ArrayList<>();
+		for (int index = 0; index < maze.getSize(); index++) {
+			if (maze.isWalkable(index) && graph.getNode(index) < 0) corridors.add(maze.getPoint(index));
+		}
+		Point first = corridors.get(corridors.size() / 7);
+		Point second = corridors.get(corridors.size() * 5 / 7);
+		Point next = null;
+		for (Point neighbour : new Point[] { new Point(first.x + 1, first.y),
+				new Point(first.x - 1, first.y), new Point(first.x, first.y + 1) }) {
+			if (corridors.contains(neighbour)) next = neighbour;
+		}
+
+		for (Point[] query : new Point[][] { { first, second }, { second, first }, { first, next } }) {
+			if (query[1] == null) continue;
+
+			MazeSolver reference = MazeSolverFactory.getSolver(maze, Aproach.BFS_QUEUE_MINE);
+			solver = MazeSolverFactory.getSolver(maze, Aproach.JUNCTION_GRAPH);
+			for (MazeSolver each : new MazeSolver[] { reference, solver }) {
+				each.setDestinations(Arrays.asList(query[1]));
+				each.addStartPosition(query[0]);
+			}
+
+			assertTrue(reference.solvePath() > 0);
+			assertTrue(solver.solvePath() > 0);
+
+			List<Point> path = solver.backTracePath();
+			assertEquals(reference.backTracePath().size(), path.size());
+			assertEquals(query[1], path.get(0));
+			assertEquals(query[0], path.get(path.size() - 1));
+			for (int index = 1; index < path.size(); index++) {
+				assertEquals(1, Math.abs(path.get(index).x - path.get(index - 1).x)
+						+ Math.abs(path.get(index).y - path.get(index - 1).y));
+				assertTrue(maze.canWalkTo(path.get(index)));
+			}
+		}
+	}
+
+	@Test
+	public void hpaStarTest() throws Exception {
+		validatePaths(Aproach.HPA_STAR, false);
+	}
+
+	@Test
+	public void hpaStarRefreshTest() throws Exception {
+		loadMaze("./testMazes/hard62x150.maze");
+
+		MazeClusterGraph graph = maze.getClusterGraph();
+		int built = graph.getClustersBuilt();
+
+		// block a cell of the path which is not on a cluster border
+		solver = MazeSolverFactory.getSolver(maze, Aproach.HPA_STAR);
+		solver.solvePath();
+		Point blocked = null;
+		for (Point point : solver.backTracePath()) {
+			int x = point.x % MazeClusterGraph.CLUSTER_SIZE;
+			int y = point.y % MazeClusterGraph.CLUSTER_SIZE;
+			if (maze.getBlock(point) == Maze.Block.EMPTY && x > 0 && y > 0
+					&& x < MazeClusterGraph.CLUSTER_SIZE - 1 && y < MazeClusterGraph.CLUSTER_SIZE - 1) {
+				blocked = point;
+				break;
+			}
+		}
+		maze.addWall(blocked);
+
+		assertSame(graph, maze.getClusterGraph());
+		assertEquals(built + 1, graph.getClustersBuilt());
+
+		MazeSolver reference = MazeSolverFactory.getSolver(maze, Aproach.ASTAR_BINARY_HEAP);
+		solver = MazeSolverFactory.getSolver(maze, Aproach.HPA_STAR);
+		reference.solvePath();
+		solver.solvePath();
+
+		if (reference.backTracePath() == null) {
+			assertNull(solver.backTracePath());
+		} else {
+			List<Point> path = solver.backTracePath();
+			assertTrue(path.size() >= reference.backTracePath().size());
+			assertTrue(path.size() <= hpaStarLongestPath(reference.backTracePath()));
+			assertFalse(path.contains(blocked));
+			for (int index = 1; index < path.size(); index++) {
+				assertTrue(maze.canWalkTo(path.get(index)));
+				assertEquals(1, path.get(index).distance(path.get(index - 1)), 0);
+			}
+		}
+	}
+
+	@Test
+	public void aStarLandmarksTest() throws Exception {
+		validateOptimal(Aproach.ASTAR_LANDMARKS);
+	}
+
+	@Test
+	public void aStarLandmarksClosedTest() throws Exception {
+		loadMaze("./testMazes/hard62x150.maze");
+
+		MazeSolver reference = MazeSolverFactory.getSolver(maze, Aproach.ASTAR_BINARY_HEAP);
+		solver = MazeSolverFactory.getSolver(maze, Aproach.ASTAR_LANDMARKS);
+
+		reference.solvePath();
+		solver.solvePath();
+
+		assertEquals(reference.backTracePath().size(), solver.backTracePath().size());
+		assertTrue(solver.getVisitedAlreadySize() < reference.getVisitedAlreadySize());
+	}
+
+	@Test
+	public void multiSourceTest() throws Exception {
+		loadMaze("./testMazes/tiny.maze");
+		List<Point> starts = maze.getAllBlock(Maze.Block.START);
+		assertTrue(starts.size() > 1);
+
+		// shortest path when each start is solved alone
+		int shortest = Integer.MAX_VALUE;
+		for (Point start : starts) {
+			maze = new Maze();
+			loadMaze("./testMazes/tiny.maze");
+			for (Point other : starts) {
+				if (!other.equals(start)) maze.addWalkablePath(other);
+			}
+
+			solver = MazeSolverFactory.getSolver(maze, Aproach.ASTAR_HASHMAP);
+			solver.solvePath();
+			if (solver.backTracePath() != null)
+				shortest = Math.min(shortest, solver.backTracePath().size());
+		}
+
+		for (Aproach aproach : new Aproach[] { Aproach.BFS_QUEUE_MINE, Aproach.BFS_QUEUE_JDK,
+				Aproach.ASTAR_HASHMAP, Aproach.ASTAR_CONCURENT_HASHMAP }) {
+			maze = new Maze();
+			loadMaze("./testMazes/tiny.maze");
+
+			solver = MazeSolverFactory.getSolver(maze, aproach);
+			assertTrue(aproach.toString(), solver.solvePath() > 0);
+			assertEquals(aproach.toString(), shortest, solver.backTracePath().size());
+
+			// the last start is walled in, the others still have to be searched
+			maze = new Maze();
+			loadMaze("./testMazes/tiny.maze");
+			maze.setComponentLabelling(true);
+			Point last = starts.get(starts.size() - 1);
+			maze.addWall(new Point(last.x, last.y - 1));
+
+			solver = MazeSolverFactory.getSolver(maze, aproach);
+			assertTrue(aproach.toString(), solver.solvePath() > 0);
+			assertEquals(aproach.toString(), starts.get(0),
+					solver.backTracePath().get(solver.backTracePath().size() - 1));
+		}
+	}
+
+	@Test
+	public void manyDestinationsTest() throws Exception {
+		for (Aproach aproach : new Aproach[] { Aproach.ASTAR_HASHMAP, Aproach.ASTAR_BINARY_HEAP,
+				Aproach.ASTAR_LANDMARKS, Aproach.ASTAR_BIDIRECTIONAL, Aproach.IDA_STAR, Aproach.SMA_STAR }) {
+			maze = new Maze();
+			loadMaze("./testMazes/hard62x150.maze");
+
+			// enough finishes for the heurestic to be precomputed
+			List<Point> empty = maze.getAllBlock(Maze.Block.EMPTY);
+			for (int position = 0; position < empty.size(); position += empty.size() / 40) {
+				maze.addFinish(empty.get(position));
+			}
+			assertTrue(maze.getAllBlock(Maze.Block.FINISH).size() >= MazeDistanceTransform.MIN_TARGETS);
+
+			MazeSolver reference = MazeSolverFactory.getSolver(maze, Aproach.BFS_QUEUE_MINE);
+			solver = MazeSolverFactory.getSolver(maze, aproach);
+
+			reference.solvePath();
+			solver.solvePath();
+
+			assertEquals(aproach.toString(), reference.backTracePath().size(), solver.backTracePath()
+					.size());
+		}
+	}
+
+	@Test
+	public void manyStartsBidirectionalTest() throws Exception {
+		loadMaze("./testMazes/hard62x150.maze");
+
+		// enough starts for the backward potential to be precomputed
+		List<Point> empty = maze.getAllBlock(Maze.Block.EMPTY);
+		for (int position = 0; position < empty.size(); position += empty.size() / 40) {
+			maze.addStart(empty.get(position));
+		}
+		assertTrue(maze.getAllBlock(Maze.Block.START).size() >= MazeDistanceTransform.MIN_TARGETS);
+
+		MazeSolver reference = MazeSolverFactory.getSolver(maze, Aproach.BFS_QUEUE_MINE);
+		solver = MazeSolverFactory.getSolver(maze, Aproach.ASTAR_BIDIRECTIONAL);
+
+		reference.solvePath();
+		solver.solvePath();
+
+		assertEquals(reference.backTracePath().size(), solver.backTracePath().size());
+	}
+
+	@Test
+	public void batchSolverTest() throws Exception {
+		loadMaze("./testMazes/hard62x150.maze");
+
+		// every start and destination pair from few cells of the maze
+		List<Point> empty = maze.getAllBlock(Maze.Block.EMPTY);
+		List<Pair<Point, Point>> queries = new ArrayList<>();
+		for (int from = 0; from < empty.size(); from += 401) {
+			for (int to = 7; to < empty.size(); to += 503) {
+				queries.add(new Pair<>(empty.get(from), empty.get(to)));
+			}
+		}
+
+		MazeBatchSolver batch = new MazeBatchSolver(maze);
+		List<MazeBatchSolver.Route> routes = batch.solve(queries);
+		assertEquals(queries.size(), routes.size());
+		assertTrue(batch.solve(new ArrayList<>()).isEmpty());
+
+		for (int query = 0; query < queries.size(); query++) {
+			Point start = queries.get(query).first;
+			Point goal = queries.get(query).second;
+			MazeBatchSolver.Route route = routes.get(query);
+
+			// compare with the flow field, it's exact BFS distance
+			int expected = maze.getFlowField(Arrays.asList(goal)).getDistance(maze.getIndex(start));
+			assertEquals(expected, route.getLength());
+			assertEquals(expected, batch.solve(start, goal).getLength());
+
+			List<Point> path = batch.getPath(route);
+			if (expected < 0) {
+				assertNull(path);
+				continue;
+			}
+			assertEquals(start, path.get(0));
+			assertEquals(goal, path.get(path.size() - 1));
+			for (int index = 1; index < path.size(); index++) {
+				assertTrue(maze.canWalkTo(path.get(index)));
+				assertEquals(1, path.get(index).distance(path.get(index - 1)), 0);
+			}
+		}
+	}
+
+	@Test
+	public void pathCacheTest() throws Exception {
+		MazePathCache cache = new MazePathCache(1 << 20);
+
+		loadMaze("./testMazes/hard62x150.maze");
+		Maze other = new Maze();
+		other.load("./testMazes/tiny.maze");
+
+		int[] path = cache.getPath(maze, Aproach.ASTAR_BINARY_HEAP);
+		assertArrayEquals(path, cache.getPath(maze, Aproach.ASTAR_BINARY_HEAP));
+		cache.getPath(other, Aproach.ASTAR_BINARY_HEAP);
+		assertEquals(1, cache.getHits());
+		assertEquals(2, cache.getMisses());
+
+		// same content in other object is a hit
+		Maze copy = new Maze();
+		copy.load("./testMazes/hard62x150.maze");
+		assertArrayEquals(path, cache.getPath(copy, Aproach.ASTAR_BINARY_HEAP));
+		assertEquals(2, cache.getHits());
+
+		// unsolvable maze is cached too
+		Maze unsolvable = new Maze();
+		unsolvable.load("./testMazes/noSolution.maze");
+		assertNull(cache.getPath(unsolvable, Aproach.ASTAR_BINARY_HEAP));
+		assertNull(cache.getPath(unsolvable, Aproach.ASTAR_BINARY_HEAP));
+		assertEquals(3, cache.getHits());
+
+		// changed maze drops only its own entries, the others are kept
+		other.addWall(other.getAllBlock(Maze.Block.EMPTY).getLast());
+		cache.getPath(other, Aproach.ASTAR_BINARY_HEAP);
+		assertEquals(1, cache.getInvalidations());
+		assertEquals(4, cache.getMisses());
+		cache.getPath(maze, Aproach.ASTAR_BINARY_HEAP);
+		assertEquals(4, cache.getHits());
+
+		// small cache evicts least recently used entries
+		MazePathCache small = new MazePathCache(path.length * 4 + 256);
+		small.getPath(maze, Aproach.ASTAR_BINARY_HEAP);
+		small.getPath(other, Aproach.ASTAR_BINARY_HEAP);
+		small.getPath(unsolvable, Aproach.ASTAR_BINARY_HEAP);
+		assertTrue(small.getEvictions() > 0);
+		assertTrue(small.getWeight() <= path.length * 4 + 256);
+		small.getPath(maze, Aproach.ASTAR_BINARY_HEAP);
+		assertEquals(4, small.getMisses());
+	}
+
+	@Test
+	public void pathCacheThreadsTest() throws Exception {
+		MazePathCache cache = new MazePathCache(1 << 20);
+		loadMaze("./testMazes/hard62x150.maze");
+		int[] expected = cache.getPath(maze, Aproach.ASTAR_BINARY_HEAP);
+
+		// each thread has its own copy of the maze, all of them share the cache
+		List<int[]> paths = IntStream.range(0, 8).parallel().mapToObj(thread -> {
+			try {
+				Maze copy = new Maze();
+				copy.load("./testMazes/hard62x150.maze");
+				cache.getPath(copy, Aproach.ASTAR_BINARY_HEAP);
+				return cache.getPath(copy, Aproach.ASTAR_BINARY_HEAP);
+			} catch (Exception exception) {
+				throw new RuntimeException(exception);
+			}
+		}).collect(Collectors.toList());
+
+		for (int[] path : paths) {
+			assertArrayEquals(expected, path);
+		}
+		assertEquals(16, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		assertEquals(1, cache.size());
+	}
+
 }
@@ -4,6 +4,12 @@ import static org.junit.Assert.*;
 
 import java.awt.Point;
 import java.io.File;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -87,4 +93,496 @@ public class MazeTest {
 		
 	}
 	
+	@Test
+	public void testChangeJournal() throws Exception {
+		loadMaze("./testMazes/tiny.maze");
+		long loaded = maze.getVersion();
+
+		// nothing before the load can be listed
+		assertNull(maze.getChangedCells(loaded - 1));
+		assertEquals(0, maze.getChangedCells(loaded).length);
+
+		maze.addWall(new Point(5, 2));
+		maze.addWall(new Point(5, 2));
+		maze.addWalkablePath(new Point(3, 3));
+
+		assertEquals(loaded + 2, maze.getVersion());
+		assertArrayEquals(new int[] { maze.getIndex(5, 2), maze.getIndex(3, 3) },
+				maze.getChangedCells(loaded));
+		assertArrayEquals(new int[] { maze.getIndex(3, 3) }, maze.getChangedCells(loaded + 1));
+
+		for (int change = 0; change < Maze.JOURNAL_SIZE; change++) {
+			maze.addWall(new Point(5, 2));
+			maze.addWalkablePath(new Point(5, 2));
+		}
+		assertNull(maze.getChangedCells(loaded));
+	}
+
+	@Test
+	public void testDeadEndsFilled() throws Exception {
+		loadMaze("./testMazes/hard55x37.maze");
+
+		Maze filled = maze.getDeadEndsFilled();
+		assertSame(filled, maze.getDeadEndsFilled());
+
+		assertEquals(maze.getAllBlock(Block.START), filled.getAllBlock(Block.START));
+		assertEquals(maze.getAllBlock(Block.FINISH), filled.getAllBlock(Block.FINISH));
+		assertTrue(filled.getAllBlock(Block.EMPTY).size() < maze.getAllBlock(Block.EMPTY).size());
+
+		// no dead end is left
+		int[] offsets = filled.getNeighbourOffsets();
+		for (Point point : filled.getAllBlock(Block.EMPTY)) {
+			int index = filled.getIndex(point);
+			int walkable = 0;
+			for (int offset : offsets) {
+				if (filled.isWalkable(index + offset)) walkable++;
+			}
+			assertTrue(point.toString(), walkable > 1);
+		}
+
+		maze.addWall(maze.getAllBlock(Block.EMPTY).getFirst());
+		assertNotSame(filled, maze.getDeadEndsFilled());
+	}
+
+	@Test
+	public void testJunctionGraph() throws Exception {
+		loadMaze("./testMazes/hard62x150.maze");
+
+		MazeGraph graph = maze.getJunctionGraph();
+		assertSame(graph, maze.getJunctionGraph());
+
+		int walkable = 0;
+		for (int index = 0; index < maze.getSize(); index++) {
+			if (maze.isWalkable(index)) walkable++;
+		}
+		assertTrue(graph.getNodes() * 10 < walkable);
+
+		// each corridor is walkable and ends in the target node
+		for (int edge = 0; edge < graph.getEdges(); edge++) {
+			int[] corridor = graph.getEdgeCells(edge);
+
+			assertEquals(graph.getEdgeWeight(edge), corridor.length);
+			assertEquals(graph.getCell(graph.getEdgeTarget(edge)), corridor[corridor.length - 1]);
+			for (int cell : corridor) {
+				assertTrue(maze.isWalkable(cell));
+			}
+		}
+	}
+
+	@Test
+	public void testLandmarksRoundTrip() throws Exception {
+		loadMaze("./testMazes/hard62x150.maze");
+
+		MazeLandmarks landmarks = maze.getLandmarks();
+		assertSame(landmarks, maze.getLandmarks());
+		assertEquals(MazeLandmarks.DEFAULT_LANDMARKS, landmarks.size());
+
+		File landmarksFile = File.createTempFile("hard62x150", ".landmarks");
+		landmarksFile.deleteOnExit();
+		landmarks.save(landmarksFile.toString());
+
+		MazeLandmarks loaded = MazeLandmarks.load(maze, landmarksFile.toString());
+		assertArrayEquals(landmarks.getCells(), loaded.getCells());
+		for (int landmark = 0; landmark < landmarks.size(); landmark++) {
+			for (int index = 0; index < maze.getSize(); index++) {
+				assertEquals(landmarks.getDistance(landmark, index), loaded.getDistance(landmark, index));
+			}
+		}
+
+		maze.setLandmarks(loaded);
+		assertSame(loaded, maze.getLandmarks());
+
+		// landmarks of a changed maze are computed again
+		maze.addWall(maze.getAllBlock(Block.EMPTY).getFirst());
+		assertNotSame(loaded, maze.getLandmarks());
+	}
+
+	@Test(expected = Exception.class)
+	public void testLandmarksOfChangedMaze() throws Exception {
+		loadMaze("./testMazes/hard62x150.maze");
+
+		File landmarksFile = File.createTempFile("hard62x150", ".landmarks");
+		landmarksFile.deleteOnExit();
+		maze.getLandmarks().save(landmarksFile.toString());
+
+		// same size, but other content
+		maze.addWall(maze.getAllBlock(Block.EMPTY).getFirst());
+		MazeLandmarks.load(maze, landmarksFile.toString());
+	}
+
+	@Test(expected = Exception.class)
+	public void testLandmarksOfOtherMaze() throws Exception {
+		Maze other = new Maze();
+		other.load("./testMazes/hard55x37.maze");
+
+		loadMaze("./testMazes/hard62x150.maze");
+		maze.setLandmarks(other.getLandmarks());
+	}
+
+	@Test
+	public void testLandmarksTooBig() throws Exception {
+		loadMaze("./testMazes/hard62x150.maze");
+
+		File landmarksFile = File.createTempFile("hard62x150", ".landmarks");
+		landmarksFile.deleteOnExit();
+		maze.getLandmarks().save(landmarksFile.toString());
+
+		// count of landmarks which would overflow int size of the body
+		try (RandomAccessFile file = new RandomAccessFile(landmarksFile, "rw")) {
+			file.seek(14);
+			file.writeInt(1 << 20);
+		}
+
+		try {
+			MazeLandmarks.load(maze, landmarksFile.toString());
+			fail("Too big landmarks file was loaded");
+		} catch (Exception exception) {
+			assertTrue(exception.getMessage().contains("too big"));
+		}
+	}
+
+	@Test
+	public void testFlowField() throws Exception {
+		loadMaze("./testMazes/hard62x150.maze");
+
+		MazeFlowField field = maze.getFlowField();
+		assertSame(field, maze.getFlowField(maze.getAllBlock(Block.FINISH)));
+
+		MazeSolver solver = MazeSolverFactory.getSolver(maze, MazeSolver.Aproach.BFS_QUEUE_MINE);
+		solver.solvePath();
+
+		Point start = maze.getAllBlock(Block.START).getFirst();
+		List<Point> path = field.pathFrom(start);
+		assertEquals(solver.backTracePath().size(), path.size());
+		assertEquals(start, path.get(0));
+		assertEquals(Block.FINISH, maze.getBlock(path.get(path.size() - 1)));
+
+		// each step goes to a walkable neighbour one step closer
+		int[] cells = field.pathFrom(maze.getIndex(start));
+		for (int step = 1; step < cells.length; step++) {
+			assertTrue(maze.isWalkable(cells[step]));
+			assertEquals(field.getDistance(cells[step - 1]) - 1, field.getDistance(cells[step]));
+		}
+
+		// other destinations have their own field
+		List<Point> others = new ArrayList<>();
+		others.add(start);
+		assertNotSame(field, maze.getFlowField(others));
+		assertEquals(0, maze.getFlowField(others).getDistance(maze.getIndex(start)));
+
+		maze.addWall(maze.getAllBlock(Block.EMPTY).getFirst());
+		assertNotSame(field, maze.getFlowField());
+	}
+
+	@Test
+	public void testDistanceTransform() throws Exception {
+		loadMaze("./testMazes/hard62x150.maze");
+
+		List<Point> targets = new ArrayList<>();
+		List<Point> empty = maze.getAllBlock(Block.EMPTY);
+		for (int position = 0; position < empty.size(); position += 97) {
+			targets.add(empty.get(position));
+		}
+
+		MazeDistanceTransform distances = new MazeDistanceTransform(maze, targets);
+		for (int index = 0; index < maze.getSize(); index++) {
+			Point point = maze.getPoint(index);
+			int closest = Integer.MAX_VALUE;
+			for (Point target : targets) {
+				closest = Math.min(closest, Math.abs(point.x - target.x) + Math.abs(point.y - target.y));
+			}
+			assertEquals(closest, distances.getDistance(index));
+			assertEquals(closest, distances.getDistance(point.x, point.y));
+		}
+	}
+
+	@Test
+	public void testDistanceTransformShared() throws Exception {
+		loadMaze("./testMazes/tiny.maze");
+
+		BitSet targets = new BitSet();
+		targets.set(maze.getIndex(new Point(2, 2)));
+		MazeDistanceTransform distances = maze.getDistanceTransform(targets);
+		assertSame(distances, maze.getDistanceTransform((BitSet) targets.clone()));
+		assertEquals(0, distances.getDistance(2, 2));
+		assertEquals(3, distances.getDistance(3, 4));
+
+		maze.addWall(maze.getAllBlock(Block.EMPTY).getFirst());
+		assertNotSame(distances, maze.getDistanceTransform(targets));
+	}
+
+	@Test
+	public void testFingerprint() throws Exception {
+		loadMaze("./testMazes/tiny.maze");
+		Maze copy = new Maze();
+		copy.load("./testMazes/tiny.maze");
+
+		long fingerprint = maze.getFingerprint();
+		assertEquals(fingerprint, copy.getFingerprint());
+
+		Point empty = maze.getAllBlock(Block.EMPTY).getFirst();
+		maze.addWall(empty);
+		assertNotEquals(fingerprint, maze.getFingerprint());
+
+		// same content again gives the same fingerprint
+		maze.addWalkablePath(empty);
+		assertEquals(fingerprint, maze.getFingerprint());
+	}
+
+	@Test(expected = Exception.class)
+	public void testTooManyCells() throws Exception {
+		// each side is allowed, but the cells wouldn't fit into int index
+		maze.setWidth(50000);
+		maze.setHeight(50000);
+		maze.initialize();
+	}
+
+	@Test
+	public void testTiledHugeMaze() throws Exception {
+		// bigger than in heap limit, so it will be backed by memory mapped tiles
+		maze.setWidth(9000);
+		maze.setHeight(9000);
+		maze.initialize();
+
+		assertEquals(Block.WALL, maze.getBlock(new Point(0, 0)));
+		assertEquals(Block.WALL, maze.getBlock(new Point(8999, 8999)));
+		assertEquals(null, maze.getBlock(new Point(4500, 4500)));
+
+		maze.addStart(new Point(1, 1));
+		maze.addWalkablePath(new Point(300, 1));
+		maze.addFinish(new Point(8998, 8998));
+
+		assertEquals(Block.START, maze.getBlock(new Point(1, 1)));
+		assertTrue(maze.canWalkTo(new Point(300, 1)));
+		assertFalse(maze.canWalkTo(new Point(301, 1)));
+		assertEquals(Block.FINISH, maze.getBlock(new Point(8998, 8998)));
+
+		// huge maze holds temporary file, which is deleted by close
+		maze.close();
+	}
+
+	@Test
+	public void testTiledStorageParallel() throws Exception {
+		// more than 16384 tiles, so the file is mapped in two segments
+		int width = 1 << 17;
+		int height = 8300;
+		MazeStorageTiled storage = new MazeStorageTiled(width, height);
+
+		// rows around the border of the segments written by many threads at once
+		IntStream.range(8000, height).parallel().forEach(y -> {
+			for (int x = 0; x < width; x += 1021) {
+				storage.set(x, y, (byte) ((x + y) % 5 + 1));
+			}
+		});
+
+		for (int y = 8000; y < height; y++) {
+			for (int x = 0; x < width; x += 1021) {
+				assertEquals((byte) ((x + y) % 5 + 1), storage.get(x, y));
+			}
+		}
+		assertEquals(0, storage.get(width - 1, height - 1));
+		storage.close();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testTiledStorageClose() throws Exception {
+		MazeStorageTiled storage = new MazeStorageTiled(300, 300);
+		storage.set(299, 299, Block.WALL.getCode());
+		assertEquals(Block.WALL.getCode(), storage.get(299, 299));
+
+		// tiles are not mapped anymore and the file is closed
+		storage.close();
+		storage.get(299, 299);
+	}
+
+	@Test
+	public void testBinaryRoundTrip() throws Exception {
+		loadMaze("./testMazes/tiny.maze");
+
+		File binaryFile = File.createTempFile("tiny", Maze.BINARY_EXTENSION);
+		binaryFile.deleteOnExit();
+		maze.save(binaryFile.toString());
+
+		Maze binary = new Maze();
+		binary.load(binaryFile.toString());
+
+		assertEquals(maze.getWidth(), binary.getWidth());
+		assertEquals(maze.getHeight(), binary.getHeight());
+		assertEquals(maze.getAllBlock(Block.START), binary.getAllBlock(Block.START));
+		assertEquals(maze.getAllBlock(Block.FINISH), binary.getAllBlock(Block.FINISH));
+		assertEquals(maze.getAllBlock(Block.WALL), binary.getAllBlock(Block.WALL));
+		assertEquals(maze.getAllBlock(Block.EMPTY), binary.getAllBlock(Block.EMPTY));
+	}
+
+	@Test(expected = Exception.class)
+	public void testBinaryLoadErrorChecksum() throws Exception {
+		loadMaze("./testMazes/tiny.maze");
+
+		File binaryFile = File.createTempFile("tiny", Maze.BINARY_EXTENSION);
+		binaryFile.deleteOnExit();
+		maze.save(binaryFile.toString());
+
+		// flip one bit in the wall plane
+		try (RandomAccessFile raf = new RandomAccessFile(binaryFile, "rw")) {
+			raf.seek(raf.length() - 1);
+			int last = raf.read();
+			raf.seek(raf.length() - 1);
+			raf.write(last ^ 1);
+		}
+
+		maze = new Maze();
+		maze.load(binaryFile.toString());
+	}
+
+	@Test
+	public void testBinaryLoadErrorBorder() throws Exception {
+		loadMaze("./testMazes/smallSimple.maze");
+
+		// open the left column
+		for (int y = 0; y < maze.getHeight(); y++) {
+			maze.addWalkablePath(new Point(0, y));
+		}
+
+		File binaryFile = File.createTempFile("smallSimple", Maze.BINARY_EXTENSION);
+		binaryFile.deleteOnExit();
+		maze.save(binaryFile.toString());
+
+		try {
+			new Maze().load(binaryFile.toString());
+			fail("Binary maze with open border was loaded");
+		} catch (Exception exception) {
+			assertTrue(exception.getMessage().contains("border"));
+		}
+	}
+
+	@Test
+	public void testBinaryLoadErrorPointOnBorder() throws Exception {
+		loadMaze("./testMazes/tiny.maze");
+
+		File binaryFile = File.createTempFile("tiny", Maze.BINARY_EXTENSION);
+		binaryFile.deleteOnExit();
+		maze.save(binaryFile.toString());
+
+		// move the first start to the left column, the wall plane is kept closed
+		try (RandomAccessFile raf = new RandomAccessFile(binaryFile, "rw")) {
+			raf.seek(18);
+			raf.writeInt(0);
+		}
+
+		try {
+			new Maze().load(binaryFile.toString());
+			fail("Binary maze with start on the border was loaded");
+		} catch (Exception exception) {
+			assertTrue(exception.getMessage().contains("outside of the border"));
+		}
+	}
+
+	@Test
+	public void testBinaryLoadErrorNegativeSize() throws Exception {
+		loadMaze("./testMazes/tiny.maze");
+
+		File binaryFile = File.createTempFile("tiny", Maze.BINARY_EXTENSION);
+		binaryFile.deleteOnExit();
+		maze.save(binaryFile.toString());
+
+		for (int[] size : new int[][] { { -4, -4 }, { -3, 5 }, { 2, 5 } }) {
+			try (RandomAccessFile raf = new RandomAccessFile(binaryFile, "rw")) {
+				raf.seek(6);
+				raf.writeInt(size[0]);
+				raf.writeInt(size[1]);
+			}
+
+			try {
+				new Maze().load(binaryFile.toString());
+				fail("Binary maze " + size[0] + "x" + size[1] + " was loaded");
+			} catch (Exception exception) {
+				assertTrue(exception.getMessage().contains("too small"));
+			}
+		}
+	}
+
+	@Test(expected = Exception.class)
+	public void testLoadErrorExtraLine() throws Exception {
+		File mazeFile = File.createTempFile("extraLine", ".maze");
+		mazeFile.deleteOnExit();
+
+		// one line more than the header says would overwrite the bottom border
+		try (PrintWriter printer = new PrintWriter(mazeFile)) {
+			printer.write("3 2\n");
+			printer.write("o..\n");
+			printer.write("..*\n");
+			printer.write("...\n");
+		}
+
+		maze.load(mazeFile.toString());
+	}
+
+	@Test(expected = Exception.class)
+	public void testBinaryLoadErrorCount() throws Exception {
+		loadMaze("./testMazes/tiny.maze");
+
+		File binaryFile = File.createTempFile("tiny", Maze.BINARY_EXTENSION);
+		binaryFile.deleteOnExit();
+		maze.save(binaryFile.toString());
+
+		// count of starts which would overflow when multiplied by 8
+		try (RandomAccessFile raf = new RandomAccessFile(binaryFile, "rw")) {
+			raf.seek(14);
+			raf.writeInt(0x20000001);
+		}
+
+		maze = new Maze();
+		maze.load(binaryFile.toString());
+	}
+
+	@Test
+	public void testLoadParallel() throws Exception {
+		// bigger than 4MB so it will be parsed in chunks
+		int size = 2500;
+		File mazeFile = File.createTempFile("parallel", ".maze");
+		mazeFile.deleteOnExit();
+
+		try (PrintWriter printer = new PrintWriter(mazeFile)) {
+			printer.write(size + " " + size + "\n");
+			for (int y = 0; y < size; y++) {
+				for (int x = 0; x < size; x++) {
+					printer.write((x + y) % 3 == 0 ? '#' : '.');
+				}
+				printer.write("\n");
+			}
+		}
+
+		loadMaze(mazeFile.toString());
+		assertEquals(size + 2, maze.getWidth());
+		assertEquals(size + 2, maze.getHeight());
+
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				assertEquals((x + y) % 3 == 0 ? Block.WALL : Block.EMPTY,
+						maze.getBlock(new Point(x + 1, y + 1)));
+			}
+		}
+	}
+
+	@Test
+	public void testCellIndex() throws Exception {
+		loadMaze("./testMazes/noBorder.maze");
+
+		Point point = new Point(2, 1);
+		int index = maze.getIndex(point);
+
+		assertEquals(1 * 14 + 2, index);
+		assertEquals(point, maze.getPoint(index));
+		assertEquals(14 * 12, maze.getSize());
+		assertTrue(maze.isWalkable(index));
+		assertFalse(maze.isWalkable(maze.getIndex(0, 0)));
+
+		// offsets are in same order as directions used by solvers
+		int[] offsets = maze.getNeighbourOffsets();
+		assertEquals(new Point(1, 1), maze.getPoint(index + offsets[0]));
+		assertEquals(new Point(3, 1), maze.getPoint(index + offsets[1]));
+		assertEquals(new Point(2, 2), maze.getPoint(index + offsets[2]));
+		assertEquals(new Point(2, 0), maze.getPoint(index + offsets[3]));
+	}
+
 }
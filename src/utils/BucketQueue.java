@@ -0,0 +1,204 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Bucket (Dial) priority queue for small non-negative int keys. Each key has
+ * its own bucket, so insert is O(1) and pop-min is amortised O(1) because the
+ * smallest key is only moving forward in A* with consistent heurestics.
+ * 
+ * Each bucket is split into sub-buckets by a second small non-negative key
+ * (tie), and the highest tie is taken first. A* pushes G as the tie, so on
+ * equal F the deepest node is expanded first. Inside a sub-bucket items are
+ * taken LIFO.
+ * 
+ * Decreasing key of an item just puts it into another bucket, the old entry
+ * is ignored when it's reached. Items have to be in range 0 to capacity - 1.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 0.2
+ */
+
+public class BucketQueue implements IndexedPriorityQueue {
+
+	// entries of each key and tie
+	private int[][][]		buckets;
+	private int[][]			bucketSizes;
+	// key of each item, -1 when item is not in the queue
+	private final int[]	keys;
+	// highest tie of each key which can still have entries, -1 when none
+	private int[]				maxTies;
+	private int					minBucket;
+	private int					size;
+	// tie of each item in the queue
+	private final int[]	ties;
+
+	/**
+	 * @param capacity
+	 *          highest item + 1
+	 */
+	public BucketQueue(int capacity) {
+		keys = new int[capacity];
+		Arrays.fill(keys, -1);
+		ties = new int[capacity];
+		buckets = new int[16][][];
+		bucketSizes = new int[16][];
+		maxTies = new int[16];
+		Arrays.fill(maxTies, -1);
+		minBucket = 0;
+		size = 0;
+	}
+
+	@Override
+	public boolean contains(int item) {
+		return keys[item] >= 0;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Check if the entry in the sub-bucket is still the place of the item
+	 * 
+	 * @param item
+	 * @param key
+	 * @param tie
+	 * @return
+	 */
+	private boolean isCurrent(int item, int key, int tie) {
+		return keys[item] == key && ties[item] == tie;
+	}
+
+	/**
+	 * @return item with smallest key (the highest tie and the last added on
+	 *         ties), or -1 when queue is empty
+	 */
+	@Override
+	public int peek() {
+		if (size == 0) return -1;
+
+		while (true) {
+			for (int tie = maxTies[minBucket]; tie >= 0; tie--) {
+				int[] bucket = buckets[minBucket][tie];
+				int bucketSize = bucketSizes[minBucket][tie];
+
+				// throw away entries which were moved to another bucket or removed
+				while (bucketSize > 0 && !isCurrent(bucket[bucketSize - 1], minBucket, tie)) {
+					bucketSize--;
+				}
+				bucketSizes[minBucket][tie] = bucketSize;
+
+				if (bucketSize > 0) {
+					maxTies[minBucket] = tie;
+					return bucket[bucketSize - 1];
+				}
+			}
+			maxTies[minBucket] = -1;
+			minBucket++;
+		}
+	}
+
+	/**
+	 * Remove and return item with smallest key
+	 * 
+	 * @return item or -1 when queue is empty
+	 */
+	@Override
+	public int pop() {
+		int top = peek();
+		if (top >= 0) remove(top);
+		return top;
+	}
+
+	/**
+	 * Insert new item, or move the item to another bucket if it's already there,
+	 * all items pushed without tie have tie 0
+	 * 
+	 * @param item
+	 * @param key
+	 */
+	@Override
+	public void push(int item, int key) {
+		push(item, key, 0);
+	}
+
+	/**
+	 * Insert new item, or move the item to another bucket if it's already there
+	 * 
+	 * @param item
+	 * @param key
+	 * @param tie
+	 *          on equal keys items with higher tie are taken first
+	 */
+	@Override
+	public void push(int item, int key, int tie) {
+		if (isCurrent(item, key, tie)) return;
+		if (keys[item] < 0) size++;
+
+		if (key >= buckets.length) {
+			int length = Math.max(key + 1, buckets.length * 2);
+			int oldLength = buckets.length;
+			buckets = Arrays.copyOf(buckets, length);
+			bucketSizes = Arrays.copyOf(bucketSizes, length);
+			maxTies = Arrays.copyOf(maxTies, length);
+			Arrays.fill(maxTies, oldLength, length, -1);
+		}
+
+		if (buckets[key] == null) {
+			buckets[key] = new int[Math.max(16, tie + 1)][];
+			bucketSizes[key] = new int[buckets[key].length];
+		}
+		if (tie >= buckets[key].length) {
+			int length = Math.max(tie + 1, buckets[key].length * 2);
+			buckets[key] = Arrays.copyOf(buckets[key], length);
+			bucketSizes[key] = Arrays.copyOf(bucketSizes[key], length);
+		}
+
+		int[][] bucket = buckets[key];
+		int[] bucketSize = bucketSizes[key];
+		if (bucket[tie] == null) bucket[tie] = new int[4];
+		if (bucketSize[tie] == bucket[tie].length)
+			bucket[tie] = Arrays.copyOf(bucket[tie], bucket[tie].length * 2);
+
+		bucket[tie][bucketSize[tie]++] = item;
+		keys[item] = key;
+		ties[item] = tie;
+
+		if (tie > maxTies[key]) maxTies[key] = tie;
+		if (key < minBucket) minBucket = key;
+	}
+
+	/**
+	 * Remove item from the queue, the entry in the bucket will be ignored
+	 * 
+	 * @param item
+	 */
+	@Override
+	public void remove(int item) {
+		if (keys[item] < 0) return;
+
+		keys[item] = -1;
+		size--;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return all items in order of their keys, and higher ties first
+	 */
+	@Override
+	public IntStream stream() {
+		return IntStream.range(minBucket, buckets.length).filter(key -> maxTies[key] >= 0).flatMap(
+				key -> IntStream.iterate(maxTies[key], tie -> tie - 1).limit(maxTies[key] + 1).flatMap(
+						tie -> IntStream.range(0, bucketSizes[key][tie]).map(index -> buckets[key][tie][index])
+								.filter(item -> isCurrent(item, key, tie))));
+	}
+
+}
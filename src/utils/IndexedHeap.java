@@ -0,0 +1,195 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Binary min heap of int items (cell indexes) with int keys. Every item knows
+ * its position inside the heap, so contains() is O(1) and changing the key of
+ * an item already in heap (decrease key) is O(log n) without any duplicates.
+ * Items have to be in range 0 to capacity - 1.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 0.1
+ */
+
+public class IndexedHeap implements IndexedPriorityQueue {
+
+	private final int[]	heap;
+	private final int[]	keys;
+	private final int[]	positions;
+	private int					size;
+
+	/**
+	 * @param capacity
+	 *          highest item + 1
+	 */
+	public IndexedHeap(int capacity) {
+		heap = new int[capacity];
+		keys = new int[capacity];
+		positions = new int[capacity];
+		Arrays.fill(positions, -1);
+		size = 0;
+	}
+
+	/**
+	 * Remove all items, costs only as much as the items in heap so the heap can
+	 * be reused for another search
+	 */
+	public void clear() {
+		for (int position = 0; position < size; position++) {
+			positions[heap[position]] = -1;
+		}
+		size = 0;
+	}
+
+	@Override
+	public boolean contains(int item) {
+		return positions[item] >= 0;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param item
+	 * @return key of the item (valid only while the item is in heap)
+	 */
+	public int key(int item) {
+		return keys[item];
+	}
+
+	/**
+	 * @return item with smallest key, or -1 when heap is empty
+	 */
+	@Override
+	public int peek() {
+		if (size == 0) return -1;
+		return heap[0];
+	}
+
+	/**
+	 * Remove and return item with smallest key
+	 * 
+	 * @return item or -1 when heap is empty
+	 */
+	@Override
+	public int pop() {
+		if (size == 0) return -1;
+		int top = heap[0];
+		remove(top);
+		return top;
+	}
+
+	/**
+	 * Insert new item, or change key of the item if it's already there
+	 * 
+	 * @param item
+	 * @param key
+	 */
+	@Override
+	public void push(int item, int key) {
+		int position = positions[item];
+
+		if (position < 0) {
+			position = size++;
+			heap[position] = item;
+			positions[item] = position;
+			keys[item] = key;
+			siftUp(position);
+		} else {
+			int oldKey = keys[item];
+			keys[item] = key;
+			if (key < oldKey) {
+				siftUp(position);
+			} else {
+				siftDown(position);
+			}
+		}
+	}
+
+	/**
+	 * Remove item from any position in the heap
+	 * 
+	 * @param item
+	 */
+	@Override
+	public void remove(int item) {
+		int position = positions[item];
+		if (position < 0) return;
+
+		size--;
+		positions[item] = -1;
+
+		if (position < size) {
+			int last = heap[size];
+			heap[position] = last;
+			positions[last] = position;
+			siftDown(position);
+			siftUp(positions[last]);
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return all items in heap order (not sorted)
+	 */
+	@Override
+	public IntStream stream() {
+		return Arrays.stream(heap, 0, size);
+	}
+
+	/**
+	 * Order of the items, by default only by keys. Can be overridden when ties
+	 * need to be broken by something else.
+	 * 
+	 * @param item
+	 * @param other
+	 * @return true if item has to be closer to the top than other
+	 */
+	protected boolean less(int item, int other) {
+		return keys[item] < keys[other];
+	}
+
+	private void siftDown(int position) {
+		int item = heap[position];
+
+		while (true) {
+			int child = 2 * position + 1;
+			if (child >= size) break;
+			if (child + 1 < size && less(heap[child + 1], heap[child])) child++;
+			if (!less(heap[child], item)) break;
+
+			heap[position] = heap[child];
+			positions[heap[position]] = position;
+			position = child;
+		}
+
+		heap[position] = item;
+		positions[item] = position;
+	}
+
+	private void siftUp(int position) {
+		int item = heap[position];
+
+		while (position > 0) {
+			int parent = (position - 1) / 2;
+			if (!less(item, heap[parent])) break;
+
+			heap[position] = heap[parent];
+			positions[heap[position]] = position;
+			position = parent;
+		}
+
+		heap[position] = item;
+		positions[item] = position;
+	}
+
+}
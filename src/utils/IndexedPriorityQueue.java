@@ -0,0 +1,44 @@
+package utils;
+
+import java.util.stream.IntStream;
+
+/**
+ * Interface for priority queues of int items (cell indexes) with int keys, so
+ * solvers can use binary heap or bucket queue without any change in their code
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 0.1
+ */
+
+public interface IndexedPriorityQueue {
+
+	public boolean contains(int item);
+
+	public boolean isEmpty();
+
+	public int peek();
+
+	public int pop();
+
+	public void push(int item, int key);
+
+	/**
+	 * Insert or move the item, on equal keys items with higher tie should be
+	 * taken first. Queues which can't break ties ignore it.
+	 * 
+	 * @param item
+	 * @param key
+	 * @param tie
+	 */
+	public default void push(int item, int key, int tie) {
+		push(item, key);
+	}
+
+	public void remove(int item);
+
+	public int size();
+
+	public IntStream stream();
+
+}
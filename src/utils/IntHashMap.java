@@ -0,0 +1,108 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from non-negative int keys to int values with fixed capacity, open
+ * addressing with linear probing, so no objects are allocated for entries.
+ * Removing is shifting the following entries back, so there are no tombstones
+ * and the table never needs to be rebuilt.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 0.1
+ */
+
+public class IntHashMap {
+
+	private final int[]	keys;
+	private final int		mask;
+	private int					size;
+	private final int[]	values;
+
+	/**
+	 * @param capacity
+	 *          highest number of entries which will be stored at once
+	 */
+	public IntHashMap(int capacity) {
+		// keep the table at most half full
+		int length = Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1) * 2;
+
+		keys = new int[length];
+		values = new int[length];
+		Arrays.fill(keys, -1);
+		mask = length - 1;
+		size = 0;
+	}
+
+	/**
+	 * @param key
+	 * @return value or -1 when the key is not present
+	 */
+	public int get(int key) {
+		for (int slot = slot(key); keys[slot] >= 0; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) return values[slot];
+		}
+		return -1;
+	}
+
+	/**
+	 * Insert or replace the value of the key
+	 * 
+	 * @param key
+	 * @param value
+	 */
+	public void put(int key, int value) {
+		int slot = slot(key);
+
+		while (keys[slot] >= 0 && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+
+		if (keys[slot] < 0) {
+			if (size == keys.length - 1) throw new IllegalStateException("IntHashMap is full");
+			size++;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+	}
+
+	/**
+	 * Remove the key, entries which were probed over it are moved back
+	 * 
+	 * @param key
+	 */
+	public void remove(int key) {
+		int slot = slot(key);
+
+		while (keys[slot] != key) {
+			if (keys[slot] < 0) return;
+			slot = (slot + 1) & mask;
+		}
+
+		size--;
+
+		for (int next = (slot + 1) & mask; keys[next] >= 0; next = (next + 1) & mask) {
+			int home = slot(keys[next]);
+
+			// entry can be moved to the empty slot only if it doesn't move before its
+			// home slot
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				keys[slot] = keys[next];
+				values[slot] = values[next];
+				slot = next;
+			}
+		}
+		keys[slot] = -1;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private int slot(int key) {
+		int hash = key * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+
+}
@@ -0,0 +1,88 @@
+package utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Least recently used cache bounded by the estimated memory of its values
+ * instead of their count, so few huge values can't pin the whole heap. The
+ * value which was just computed is always kept, even when it's bigger than the
+ * limit alone.
+ * 
+ * Not thread safe.
+ * 
+ * @author agent
+ * @date 2026/10/18
+ * @version 0.1
+ */
+
+public class WeightedCache<K, V> {
+
+	private final LinkedHashMap<K, V>	entries;
+	private final long								maxWeight;
+	private long											weight;
+	private final ToLongFunction<V>		weigher;
+
+	/**
+	 * @param maxWeight
+	 *          estimated memory in bytes all values can take
+	 * @param weigher
+	 *          estimated memory of one value in bytes
+	 */
+	public WeightedCache(long maxWeight, ToLongFunction<V> weigher) {
+		this.entries = new LinkedHashMap<>(16, 0.75f, true);
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+		this.weight = 0;
+	}
+
+	/**
+	 * Remove all values
+	 */
+	public void clear() {
+		entries.clear();
+		weight = 0;
+	}
+
+	/**
+	 * Cached value, or the new one computed for the key
+	 * 
+	 * @param key
+	 * @param compute
+	 * @return
+	 */
+	public V get(K key, Function<K, V> compute) {
+		V value = entries.get(key);
+		if (value != null) return value;
+
+		value = compute.apply(key);
+		entries.put(key, value);
+		weight += weigher.applyAsLong(value);
+
+		// the newest entry is the last one, so it's never evicted here
+		Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+		while (weight > maxWeight && entries.size() > 1) {
+			weight -= weigher.applyAsLong(iterator.next().getValue());
+			iterator.remove();
+		}
+		return value;
+	}
+
+	/**
+	 * @return estimated memory of all values in bytes
+	 */
+	public long getWeight() {
+		return weight;
+	}
+
+	/**
+	 * @return number of values
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+}